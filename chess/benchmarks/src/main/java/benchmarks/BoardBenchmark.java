@@ -0,0 +1,83 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Fen;
+import chess.LegalMoveGenerator;
+import chess.MoveList;
+import chess.PositionEvaluator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying, hashing, comparing and evaluating boards over the corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private ChessBoard[] boards;
+    private ChessBoard[] copies;
+    private int[] firstMoves;
+
+    @Setup
+    public void setup() {
+        ChessGame[] games = Positions.games();
+        boards = new ChessBoard[games.length];
+        copies = new ChessBoard[games.length];
+        firstMoves = new int[games.length];
+        for (int i = 0; i < games.length; i++) {
+            boards[i] = games[i].getBoard();
+            // Parsed separately so equal() compares masks rather than shared arrays
+            copies[i] = Fen.parse(Fen.toFen(games[i])).getBoard();
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(boards[i], games[i].getTeamTurn()).generate(moves);
+            firstMoves[i] = moves.get(0);
+        }
+    }
+
+    @Benchmark
+    public void copy(Blackhole blackhole) {
+        for (ChessBoard board : boards) {
+            blackhole.consume(new ChessBoard(board));
+        }
+    }
+
+    /**
+     * A copy followed by one move on it, which is when the copy takes its own masks
+     */
+    @Benchmark
+    public void copyAndMove(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            ChessBoard copy = boards[i].snapshot();
+            copy.makeMove(firstMoves[i]);
+            blackhole.consume(copy);
+        }
+    }
+
+    @Benchmark
+    public void hash(Blackhole blackhole) {
+        for (ChessBoard board : boards) {
+            blackhole.consume(board.hashCode());
+        }
+    }
+
+    @Benchmark
+    public void equal(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            blackhole.consume(boards[i].equals(copies[i]));
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (ChessBoard board : boards) {
+            blackhole.consume(PositionEvaluator.evaluate(board));
+        }
+    }
+}
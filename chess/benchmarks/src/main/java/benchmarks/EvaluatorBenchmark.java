@@ -0,0 +1,100 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.LegalMoveGenerator;
+import chess.MoveList;
+import chess.PositionEvaluator;
+import chess.engine.NnueEvaluator;
+import chess.engine.NnueNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluations per second of the classical piece-square evaluation and the network
+ * evaluation on the same corpus positions: evaluating a position as it stands, and
+ * playing a move, evaluating and taking the move back, which is what a search
+ * pays per node and includes keeping each evaluator's incremental state current.
+ * <p>
+ * The network is read from the file named by {@code -Dnnue.weights}, or is a random
+ * one with {@code -Dnnue.hidden} neurons (256 by default), which costs the same to
+ * evaluate as a trained one of that size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    private ChessBoard[] classicalBoards;
+    private ChessBoard[] nnueBoards;
+    private ChessGame.TeamColor[] toMove;
+    private int[] firstMoves;
+    private NnueEvaluator nnue;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        String weights = System.getProperty("nnue.weights");
+        NnueNetwork network = weights != null ? NnueNetwork.load(Path.of(weights))
+                : NnueNetwork.random(Integer.getInteger("nnue.hidden", 256), 1);
+        nnue = new NnueEvaluator(network);
+
+        ChessGame[] games = Positions.games();
+        classicalBoards = new ChessBoard[games.length];
+        nnueBoards = new ChessBoard[games.length];
+        toMove = new ChessGame.TeamColor[games.length];
+        firstMoves = new int[games.length];
+        for (int i = 0; i < games.length; i++) {
+            classicalBoards[i] = games[i].getBoard().snapshot();
+            nnueBoards[i] = games[i].getBoard().snapshot();
+            toMove[i] = games[i].getTeamTurn();
+            // Attaches the accumulator, as the first evaluation in a search would
+            nnue.evaluate(nnueBoards[i], toMove[i]);
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(classicalBoards[i], toMove[i]).generate(moves);
+            firstMoves[i] = moves.get(0);
+        }
+    }
+
+    private int nextPosition() {
+        next = next + 1 == firstMoves.length ? 0 : next + 1;
+        return next;
+    }
+
+    @Benchmark
+    public int classical() {
+        int i = nextPosition();
+        return PositionEvaluator.evaluate(classicalBoards[i], toMove[i]);
+    }
+
+    @Benchmark
+    public int nnue() {
+        int i = nextPosition();
+        return nnue.evaluate(nnueBoards[i], toMove[i]);
+    }
+
+    @Benchmark
+    public int classicalAfterMove() {
+        int i = nextPosition();
+        ChessBoard board = classicalBoards[i];
+        int undo = board.makeMove(firstMoves[i]);
+        int score = PositionEvaluator.evaluate(board, ChessGame.opponent(toMove[i]));
+        board.unmakeMove(firstMoves[i], undo);
+        return score;
+    }
+
+    @Benchmark
+    public int nnueAfterMove() {
+        int i = nextPosition();
+        ChessBoard board = nnueBoards[i];
+        int undo = board.makeMove(firstMoves[i]);
+        int score = nnue.evaluate(board, ChessGame.opponent(toMove[i]));
+        board.unmakeMove(firstMoves[i], undo);
+        return score;
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessGame operations the server runs while handling a move, each timed over the
+ * whole corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    private ChessGame[] games;
+    private ChessBoard[] startingBoards;
+    private ChessMove[] firstMoves;
+
+    @Setup
+    public void setup() {
+        games = Positions.games();
+        startingBoards = new ChessBoard[games.length];
+        firstMoves = new ChessMove[games.length];
+        for (int i = 0; i < games.length; i++) {
+            startingBoards[i] = new ChessBoard(games[i].getBoard());
+            for (ChessPosition position : games[i].getBoard()) {
+                ChessPiece piece = games[i].getBoard().getPiece(position);
+                if (firstMoves[i] == null && piece != null && piece.getTeamColor() == games[i].getTeamTurn()
+                        && !games[i].validMoves(position).isEmpty()) {
+                    firstMoves[i] = games[i].validMoves(position).iterator().next();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            for (long own = game.getBoard().occupancy(game.getTeamTurn()); own != 0; own &= own - 1) {
+                blackhole.consume(game.validMoves(ChessBoard.position(Long.numberOfTrailingZeros(own))));
+            }
+        }
+    }
+
+    /**
+     * Each call restores the position from a copy first, so this includes one
+     * board copy (see {@link BoardBenchmark#copy}) per position
+     */
+    @Benchmark
+    public void makeMove(Blackhole blackhole) throws InvalidMoveException {
+        for (int i = 0; i < games.length; i++) {
+            ChessGame game = games[i];
+            ChessGame.TeamColor turn = game.getTeamTurn();
+            blackhole.consume(game.makeMove(firstMoves[i]));
+            game.setBoard(new ChessBoard(startingBoards[i]));
+            game.setTeamTurn(turn);
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheck(ChessGame.TeamColor.WHITE));
+            blackhole.consume(game.isInCheck(ChessGame.TeamColor.BLACK));
+        }
+    }
+
+    @Benchmark
+    public void isInCheckmate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheckmate(game.getTeamTurn()));
+        }
+    }
+}
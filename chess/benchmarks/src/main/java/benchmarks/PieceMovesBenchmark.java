@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal move generation for one piece type at a time, over every piece of
+ * that type in the corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType pieceType;
+
+    private ChessBoard[] boards;
+    private ChessPosition[][] positions;
+
+    @Setup
+    public void setup() {
+        ChessGame[] games = Positions.games();
+        boards = new ChessBoard[games.length];
+        positions = new ChessPosition[games.length][];
+        for (int i = 0; i < games.length; i++) {
+            boards[i] = games[i].getBoard();
+            List<ChessPosition> found = new ArrayList<>();
+            for (ChessPosition position : boards[i]) {
+                ChessPiece piece = boards[i].getPiece(position);
+                if (piece != null && piece.getPieceType() == pieceType) {
+                    found.add(position);
+                }
+            }
+            positions[i] = found.toArray(ChessPosition[]::new);
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            for (ChessPosition position : positions[i]) {
+                blackhole.consume(ChessPiece.pieceMoves(boards[i], position));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.Limits;
+import chess.engine.MaterialEvaluator;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+
+import java.util.Arrays;
+
+/**
+ * Measures how Lazy SMP search scales with threads: the time to search every
+ * corpus position to a fixed depth, for 1, 2, 4, 8 and 16 threads, and the speedup
+ * over one thread, along with the shared table's hit rate and fill. Each run
+ * starts from an empty table, and the median of several runs is reported since
+ * thread timing makes single runs noisy.
+ * <p>
+ * Run with {@code mvn -pl benchmarks exec:java -Dexec.mainClass=benchmarks.SearchScaling
+ * -Dexec.args="[depth] [runs]"}. JMH is not used here because one operation already
+ * takes seconds and the interesting number is the ratio between thread counts.
+ */
+public class SearchScaling {
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int TABLE_MB = 64;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        ChessGame[] games = Positions.games();
+        TranspositionTable table = new TranspositionTable(TABLE_MB);
+
+        // Warm up the JIT before timing anything
+        timeCorpus(games, table, 2, Math.max(1, depth - 2), new long[1]);
+
+        System.out.printf("depth %d, %d positions, median of %d runs, %d cores%n", depth, games.length, runs,
+                Runtime.getRuntime().availableProcessors());
+        double baseline = 0;
+        for (int threads : THREADS) {
+            long[] times = new long[runs];
+            long[] nodes = new long[1];
+            table.resetStats();
+            for (int run = 0; run < runs; run++) {
+                times[run] = timeCorpus(games, table, threads, depth, nodes);
+            }
+            long total = Arrays.stream(times).sum();
+            Arrays.sort(times);
+            long median = times[runs / 2];
+            if (threads == 1) {
+                baseline = median;
+            }
+            TranspositionTable.Stats stats = table.stats();
+            System.out.printf("%2d threads: %8.1f ms %,14.0f nodes/s  speedup %.2fx  table hits %.1f%% fill %.1f%%%n",
+                    threads, median / 1e6, nodes[0] * 1e9 / total, baseline / median, stats.hitRate() * 100,
+                    stats.fillPermille() / 10.0);
+        }
+    }
+
+    /**
+     * @param nodes has the nodes searched added to its only element
+     * @return nanoseconds taken to search every game to the depth, not counting
+     * clearing the table before each game
+     */
+    private static long timeCorpus(ChessGame[] games, TranspositionTable table, int threads, int depth, long[] nodes) {
+        try (ParallelSearch search = new ParallelSearch(table, new MaterialEvaluator(), threads)) {
+            long nanos = 0;
+            for (ChessGame game : games) {
+                table.clear();
+                SearchResult result = search.search(game, Limits.depth(depth));
+                nanos += result.nanos();
+                nodes[0] += result.nodes();
+            }
+            return nanos;
+        }
+    }
+}
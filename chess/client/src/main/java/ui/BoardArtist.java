@@ -2,18 +2,15 @@ package ui;
 
 import chess.ChessBoard;
 import chess.ChessMove;
-import chess.ChessPosition;
+import chess.ChessPiece;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import static ui.EscapeSequences.*;
 
 public class BoardArtist {
     private boolean white = true;
     private final ChessBoard chessBoard;
-    private final List<ChessPosition> reversedPositions;
     private final StringBuilder header = new StringBuilder().append(SET_BG_COLOR_LIGHT_GREY)
             .append(SET_TEXT_COLOR_BLACK).append("    h  g  f  e  d  c  b  a    ").append(RESET_BG_COLOR).append("\n");
     private final StringBuilder reverseHeader = new StringBuilder().append(SET_BG_COLOR_LIGHT_GREY)
@@ -21,144 +18,92 @@ public class BoardArtist {
 
     public BoardArtist(ChessBoard chessBoard) {
         this.chessBoard = chessBoard;
-        this.reversedPositions = reversePositions(chessBoard);
-    }
-    private List<ChessPosition> reversePositions(ChessBoard chessBoard) {
-        ArrayList<ChessPosition> positions = new ArrayList<>();
-        for (ChessPosition position : chessBoard) {
-            positions.add(position);
-        }
-        return positions.reversed();
     }
 
     public String drawBoard() {
-        StringBuilder string = new StringBuilder();
-        int squareNumber = 0;
-        string.append(header);
-        string.append(startRow(8));
-        for (ChessPosition position : chessBoard) {
-            string.append(drawSquare(position));
-            if (++squareNumber % 8 == 0) {
-                string.append(startRow(squareNumber));
-                string.append(RESET_BG_COLOR).append("\n");
-                white = !white;
-                string.append(startRow(squareNumber + 8));
-            }
-        }
-        string.append(header);
-        return string.toString();
+        return draw(0L);
     }
     public String drawReverseBoard() {
-        StringBuilder string = new StringBuilder();
-        int squareNumber = 64;
-        string.append(reverseHeader);
-        string.append(startRow(64));
-        for (ChessPosition position : reversedPositions) {
-            string.append(drawSquare(position));
-            if (--squareNumber % 8 == 0) {
-                string.append(startRow(squareNumber + 8));
-                string.append(RESET_BG_COLOR).append("\n");
-                white = !white;
-                string.append(startRow(squareNumber));
-            }
-        }
-        string.append(reverseHeader);
-        return string.toString();
+        return drawReverse(0L);
     }
     public String showMoves(Collection<ChessMove> moves) {
-        ArrayList<ChessPosition> markedPositions = new ArrayList<>();
+        return draw(endSquares(moves));
+    }
+    public String showMovesReverse(Collection<ChessMove> moves) {
+        return drawReverse(endSquares(moves));
+    }
+
+    private long endSquares(Collection<ChessMove> moves) {
+        long marked = 0;
         for (ChessMove move : moves) {
-            markedPositions.add(move.getEndPosition());
+            marked |= 1L << ChessBoard.square(move.getEndPosition());
         }
+        return marked;
+    }
 
+    /**
+     * Draws squares a1 through h8, highlighting those in the marked mask
+     */
+    private String draw(long marked) {
         StringBuilder string = new StringBuilder();
-        int squareNumber = 0;
         string.append(header);
-        string.append(startRow(8));
-        for (ChessPosition position : chessBoard) {
-            if (markedPositions.contains(position)) {
-                string.append(drawMarkedSquare(position));
-            } else {
-                string.append(drawSquare(position));
-            }
-            if (++squareNumber % 8 == 0) {
-                string.append(startRow(squareNumber));
+        startRow(string, 8);
+        for (int square = 0; square < 64; square++) {
+            drawSquare(string, square, (marked & 1L << square) != 0);
+            int squareNumber = square + 1;
+            if (squareNumber % 8 == 0) {
+                startRow(string, squareNumber);
                 string.append(RESET_BG_COLOR).append("\n");
                 white = !white;
-                string.append(startRow(squareNumber + 8));
+                startRow(string, squareNumber + 8);
             }
         }
         string.append(header);
         return string.toString();
     }
-    public String showMovesReverse(Collection<ChessMove> moves) {
-        ArrayList<ChessPosition> markedPositions = new ArrayList<>();
-        for (ChessMove move : moves) {
-            markedPositions.add(move.getEndPosition());
-        }
 
+    /**
+     * Draws squares h8 back to a1, highlighting those in the marked mask
+     */
+    private String drawReverse(long marked) {
         StringBuilder string = new StringBuilder();
-        int squareNumber = 64;
         string.append(reverseHeader);
-        string.append(startRow(64));
-        for (ChessPosition position : reversedPositions) {
-            if (markedPositions.contains(position)) {
-                string.append(drawMarkedSquare(position));
-            } else {
-                string.append(drawSquare(position));
-            }
-            if (--squareNumber % 8 == 0) {
-                string.append(startRow(squareNumber + 8));
+        startRow(string, 64);
+        for (int square = 63; square >= 0; square--) {
+            drawSquare(string, square, (marked & 1L << square) != 0);
+            if (square % 8 == 0) {
+                startRow(string, square + 8);
                 string.append(RESET_BG_COLOR).append("\n");
                 white = !white;
-                string.append(startRow(squareNumber));
+                startRow(string, square);
             }
         }
         string.append(reverseHeader);
         return string.toString();
     }
-    private StringBuilder drawSquare(ChessPosition position) {
-        StringBuilder string = new StringBuilder();
-        if (this.white) {
-            string.append(SET_BG_COLOR_WHITE).append(SET_TEXT_COLOR_BLACK);
-        } else {
-            string.append(SET_BG_COLOR_BLACK).append(SET_TEXT_COLOR_WHITE);
-        }
-        string.append(" ");
-        if (chessBoard.getPiece(position) != null) {
-            string.append(chessBoard.getPiece(position));
-        } else {
-            string.append(" ");
-        }
-        string.append(" ");
-        this.white = !this.white;
-        return string;
-    }
-    private StringBuilder drawMarkedSquare(ChessPosition position) {
-        StringBuilder string = new StringBuilder();
-        if (this.white) {
-            string.append(SET_BG_COLOR_GREEN).append(SET_TEXT_COLOR_BLACK);
+    private void drawSquare(StringBuilder string, int square, boolean marked) {
+        if (marked) {
+            string.append(this.white ? SET_BG_COLOR_GREEN : SET_BG_COLOR_DARK_GREEN);
         } else {
-            string.append(SET_BG_COLOR_DARK_GREEN).append(SET_TEXT_COLOR_WHITE);
+            string.append(this.white ? SET_BG_COLOR_WHITE : SET_BG_COLOR_BLACK);
         }
+        string.append(this.white ? SET_TEXT_COLOR_BLACK : SET_TEXT_COLOR_WHITE);
         string.append(" ");
-        if (chessBoard.getPiece(position) != null) {
-            string.append(chessBoard.getPiece(position));
+        int pieceIndex = chessBoard.pieceIndexAt(square);
+        if (pieceIndex >= 0) {
+            string.append(ChessPiece.of(pieceIndex));
         } else {
             string.append(" ");
         }
         string.append(" ");
         this.white = !this.white;
-        return string;
     }
-    private StringBuilder startRow(int squareNumber) {
+    private void startRow(StringBuilder string, int squareNumber) {
         int rowNumber = squareNumber / 8;
-        StringBuilder string = new StringBuilder();
         if (rowNumber > 8 || rowNumber < 1) {
-            return string;
+            return;
         }
         string.append(SET_BG_COLOR_LIGHT_GREY).append(SET_TEXT_COLOR_BLACK);
         string.append(" ").append(rowNumber).append(" ");
-        return string;
     }
 }
@@ -1,5 +1,6 @@
 package server;
 
+import chess.LegalMoveCache;
 import com.google.gson.Gson;
 import dataAccess.DataAccess;
 import dataAccess.DataAccessException;
@@ -17,11 +18,15 @@ import java.util.Collections;
 import java.util.HashMap;
 
 public class Server {
+    // Positions whose legal moves are kept for all games on this server
+    private static final int MOVE_CACHE_SIZE = 1 << 16;
+
     private final AuthService authService;
     private final ClearService clearService;
     private final GameService gameService;
     private final UserService userService;
     private final WebSocketHandler webSocketHandler;
+    private final LegalMoveCache moveCache = new LegalMoveCache(MOVE_CACHE_SIZE);
 
     public Server() {
         DataAccess dataAccess;
@@ -35,8 +40,16 @@ public class Server {
         this.clearService = new ClearService(dataAccess);
         this.gameService = new GameService(dataAccess);
         this.userService = new UserService(dataAccess);
-        this.webSocketHandler = new WebSocketHandler(authService, clearService, gameService, userService);
+        this.webSocketHandler = new WebSocketHandler(authService, clearService, gameService, userService, moveCache);
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the legal move cache shared by all games
+     */
+    public LegalMoveCache.Stats moveCacheStats() {
+        return moveCache.stats();
     }
+
     public int run(int desiredPort) {
         Spark.port(desiredPort);
 
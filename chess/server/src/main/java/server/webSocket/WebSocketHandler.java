@@ -3,6 +3,7 @@ package server.webSocket;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.InvalidMoveException;
+import chess.LegalMoveCache;
 import com.google.gson.Gson;
 import dataAccess.DataAccessException;
 import model.AuthData;
@@ -28,13 +29,16 @@ public class WebSocketHandler {
     private final ClearService clearService;
     private final GameService gameService;
     private final UserService userService;
+    private final LegalMoveCache moveCache;
     private final ConnectionManager connections = new ConnectionManager();
 
-    public WebSocketHandler(AuthService authService, ClearService clearService, GameService gameService, UserService userService) {
+    public WebSocketHandler(AuthService authService, ClearService clearService, GameService gameService, UserService userService,
+                            LegalMoveCache moveCache) {
         this.authService = authService;
         this.clearService = clearService;
         this.gameService = gameService;
         this.userService = userService;
+        this.moveCache = moveCache;
     }
 
     @OnWebSocketMessage
@@ -140,12 +144,14 @@ public class WebSocketHandler {
             AuthData authData = authService.checkAuth(makeMoveCommand.getAuthString());
             GameData gameData = gameService.getGame(makeMoveCommand.gameID());
             ChessGame chessGame = gameData.game();
+            chessGame.setMoveCache(moveCache);
             ChessMove move = makeMoveCommand.chessMove();
 
-            if (chessGame.getBoard().getPiece(move.getStartPosition()).getTeamColor() == ChessGame.TeamColor.WHITE && !Objects.equals(gameData.whiteUsername(), authData.username())) {
-                throw new InvalidMoveException();
-            }
-            if (chessGame.getBoard().getPiece(move.getStartPosition()).getTeamColor() == ChessGame.TeamColor.BLACK && !Objects.equals(gameData.blackUsername(), authData.username())) {
+            // makeMove only accepts moves by the team whose turn it is, so the sender
+            // must be that team's player
+            String mover = chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE
+                    ? gameData.whiteUsername() : gameData.blackUsername();
+            if (!Objects.equals(mover, authData.username())) {
                 throw new InvalidMoveException();
             }
 
@@ -1,5 +1,11 @@
 package chess;
 
+import chess.pieceMoveCalculators.LeaperAttacks;
+import chess.pieceMoveCalculators.MagicBitboards;
+import com.google.gson.*;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Iterator;
 
@@ -8,19 +14,114 @@ import java.util.Iterator;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Internally the board is a set of bitboards: one 64-bit occupancy mask per
+ * piece color/type, plus one mask per color and one for all pieces. Square
+ * {@code (row - 1) * 8 + (col - 1)} maps to bit of the same index, so a1 is
+ * bit 0 and h8 is bit 63.
  */
+@JsonAdapter(ChessBoard.Adapter.class)
 public class ChessBoard implements Iterable<ChessPosition> {
-    ChessPiece[][] board = new ChessPiece[8][8];
+    long[] pieces = new long[12];
+    long[] colors = new long[2];
+    long occupied;
+    long key;
+    // Running sums for PositionEvaluator, kept as pieces are added and removed
+    int midgame;
+    int endgame;
+    int phase;
+    // Set while pieces and colors may be shared with a copy; the next change then
+    // works on private clones of them
+    private boolean shared;
+    private PieceListener listener;
+
+    /**
+     * Receives the pieces visited by {@link #forEachOccupied}
+     */
+    @FunctionalInterface
+    public interface PieceConsumer {
+        void accept(int square, ChessPiece piece);
+    }
+
+    /**
+     * Told of every piece put on or taken off a board, including during moves, so
+     * state derived from the pieces can be kept up to date without rescanning the
+     * board. Pieces are given as bitboard indexes (see {@link #pieceIndex}).
+     */
+    public interface PieceListener {
+        void pieceAdded(int square, int pieceIndex);
+
+        void pieceRemoved(int square, int pieceIndex);
+    }
+
     public ChessBoard() {}
 
+    /**
+     * Copy constructor. The copy shares the source's masks until either board
+     * changes, so copying costs the same however many pieces there are. The source
+     * is marked shared as well, so it must not be changed by another thread while
+     * it is being copied.
+     */
     public ChessBoard(ChessBoard copyBoard) {
-        // Copy constructor
-        this.board = new ChessPiece[8][8];
-        for (ChessPosition position : copyBoard) {
-            if (copyBoard.getPiece(position) != null) {
-                this.addPiece(position, new ChessPiece(copyBoard.getPiece(position)));
-            }
-        }
+        this.pieces = copyBoard.pieces;
+        this.colors = copyBoard.colors;
+        this.occupied = copyBoard.occupied;
+        this.key = copyBoard.key;
+        this.midgame = copyBoard.midgame;
+        this.endgame = copyBoard.endgame;
+        this.phase = copyBoard.phase;
+        this.shared = true;
+        copyBoard.shared = true;
+    }
+
+    /**
+     * Attaches a listener in place of any earlier one. Copies of the board start
+     * without a listener, and {@link #resetBoard()} detaches it.
+     *
+     * @param listener the listener, or null to detach
+     */
+    public void setPieceListener(PieceListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the attached listener, or null if there is none
+     */
+    public PieceListener pieceListener() {
+        return listener;
+    }
+
+    /**
+     * @return a copy of this board that later moves on either board do not affect,
+     * suitable for keeping as history or handing to readers on other threads
+     */
+    public ChessBoard snapshot() {
+        return new ChessBoard(this);
+    }
+
+    /**
+     * @return index of the bitboard holding pieces of the given color and type
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return bit index of the given position, 0 (a1) through 63 (h8)
+     */
+    public static int square(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+    }
+
+    /**
+     * @return True if the position is one of the 64 squares
+     */
+    public static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of((square >>> 3) + 1, (square & 7) + 1);
     }
 
     /**
@@ -30,11 +131,15 @@ public class ChessBoard implements Iterable<ChessPosition> {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = square(position);
+        removePiece(square);
+        if (piece != null) {
+            addPiece(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     public void removePiece(ChessPosition position) {
-        board [position.getRow()-1][position.getColumn()-1] = null;
+        removePiece(square(position));
     }
 
     /**
@@ -45,7 +150,240 @@ public class ChessBoard implements Iterable<ChessPosition> {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow()-1][position.getColumn()-1];
+        int index = pieceIndexAt(square(position));
+        return index < 0 ? null : ChessPiece.of(index);
+    }
+
+    void addPiece(int square, int pieceIndex) {
+        unshare();
+        long bit = 1L << square;
+        pieces[pieceIndex] |= bit;
+        colors[pieceIndex / 6] |= bit;
+        occupied |= bit;
+        key ^= Zobrist.PIECE_SQUARE[pieceIndex][square];
+        midgame += PositionEvaluator.MIDGAME[pieceIndex][square];
+        endgame += PositionEvaluator.ENDGAME[pieceIndex][square];
+        phase += PositionEvaluator.PHASE[pieceIndex];
+        if (listener != null) {
+            listener.pieceAdded(square, pieceIndex);
+        }
+    }
+
+    /**
+     * Clears a square
+     *
+     * @return the index of the piece that was removed, or -1 if the square was empty
+     */
+    int removePiece(int square) {
+        int index = pieceIndexAt(square);
+        if (index >= 0) {
+            unshare();
+            long mask = ~(1L << square);
+            pieces[index] &= mask;
+            colors[index / 6] &= mask;
+            occupied &= mask;
+            key ^= Zobrist.PIECE_SQUARE[index][square];
+            midgame -= PositionEvaluator.MIDGAME[index][square];
+            endgame -= PositionEvaluator.ENDGAME[index][square];
+            phase -= PositionEvaluator.PHASE[index];
+            if (listener != null) {
+                listener.pieceRemoved(square, index);
+            }
+        }
+        return index;
+    }
+
+    private void unshare() {
+        if (shared) {
+            pieces = pieces.clone();
+            colors = colors.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * Plays a move on this board in place. The returned undo record packs the
+     * captured piece (low four bits, 0 if none) and the piece that moved (next
+     * four bits), which together with the move is enough to restore the board.
+     *
+     * @param move the move to play, assumed to start on an occupied square
+     * @return undo record to pass to {@link #unmakeMove}
+     */
+    public int makeMove(ChessMove move) {
+        return makeMove(Move.of(move));
+    }
+
+    /**
+     * Plays a packed move (see {@link Move}) in place
+     *
+     * @return undo record to pass to {@link #unmakeMove(int, int)}
+     */
+    public int makeMove(int move) {
+        int to = Move.to(move);
+        int moved = removePiece(Move.from(move));
+        int captured = removePiece(to);
+        int promotion = Move.promotion(move);
+        addPiece(to, promotion < 0 ? moved : moved - moved % 6 + promotion);
+        return (captured + 1) | moved << 4;
+    }
+
+    /**
+     * Takes back a move played with {@link #makeMove}
+     *
+     * @param move the move that was played
+     * @param undo the record makeMove returned for it
+     */
+    public void unmakeMove(ChessMove move, int undo) {
+        unmakeMove(Move.of(move), undo);
+    }
+
+    public void unmakeMove(int move, int undo) {
+        int to = Move.to(move);
+        removePiece(to);
+        addPiece(Move.from(move), undo >>> 4);
+        int captured = (undo & 15) - 1;
+        if (captured >= 0) {
+            addPiece(to, captured);
+        }
+    }
+
+    /**
+     * @return the bitboard index of the piece on the square, or -1 if it is empty
+     */
+    public int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return -1;
+        }
+        int first = (colors[0] & bit) != 0 ? 0 : 6;
+        for (int index = first; index < first + 5; index++) {
+            if ((pieces[index] & bit) != 0) {
+                return index;
+            }
+        }
+        return first + 5;
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square. Works outward
+     * from the square (pawn diagonals, knight hops, king steps, then sliding
+     * attacks), each looked up from the precomputed attack tables, and stops at
+     * the first attacker found.
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor could capture on the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(square(position), byColor);
+    }
+
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        // A pawn of byColor attacks the square exactly when a pawn of the other color
+        // standing on the square would attack the pawn
+        if ((LeaperAttacks.pawnAttacks(ChessGame.opponent(byColor), square) & pieces(byColor, ChessPiece.PieceType.PAWN)) != 0
+                || (LeaperAttacks.knightAttacks(square) & pieces(byColor, ChessPiece.PieceType.KNIGHT)) != 0
+                || (LeaperAttacks.kingAttacks(square) & pieces(byColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = pieces(byColor, ChessPiece.PieceType.QUEEN);
+        return (MagicBitboards.rookAttacks(square, occupied) & (pieces(byColor, ChessPiece.PieceType.ROOK) | queens)) != 0
+                || (MagicBitboards.bishopAttacks(square, occupied) & (pieces(byColor, ChessPiece.PieceType.BISHOP) | queens)) != 0;
+    }
+
+    /**
+     * Finds every piece of the given team attacking a square, treating the board as
+     * holding pieces only where occupancy says so. Passing an occupancy without the
+     * defending king lets callers see squares the king would still be attacked on
+     * after stepping away along a ray.
+     *
+     * @return mask of the attacking pieces
+     */
+    public long attackersTo(int square, ChessGame.TeamColor byColor, long occupancy) {
+        long queens = pieces(byColor, ChessPiece.PieceType.QUEEN);
+        return (LeaperAttacks.pawnAttacks(ChessGame.opponent(byColor), square) & pieces(byColor, ChessPiece.PieceType.PAWN))
+                | (LeaperAttacks.knightAttacks(square) & pieces(byColor, ChessPiece.PieceType.KNIGHT))
+                | (LeaperAttacks.kingAttacks(square) & pieces(byColor, ChessPiece.PieceType.KING))
+                | (MagicBitboards.rookAttacks(square, occupancy) & (pieces(byColor, ChessPiece.PieceType.ROOK) | queens))
+                | (MagicBitboards.bishopAttacks(square, occupancy) & (pieces(byColor, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    /**
+     * @return Zobrist hash of the pieces on the board, maintained as pieces are
+     * added and removed; see {@link ChessGame#positionKey()} for the side to move
+     */
+    public long zobristKey() {
+        return key;
+    }
+
+    /**
+     * @return Zobrist key of the pieces together with the side to move, the same
+     * key {@link ChessGame#positionKey()} gives
+     */
+    public long zobristKey(ChessGame.TeamColor toMove) {
+        return toMove == ChessGame.TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
+    /**
+     * @return material and piece-square score of the middlegame tables from white's
+     * point of view, maintained as pieces are added and removed
+     * @see PositionEvaluator
+     */
+    public int midgameScore() {
+        return midgame;
+    }
+
+    /**
+     * @return material and piece-square score of the endgame tables from white's
+     * point of view
+     */
+    public int endgameScore() {
+        return endgame;
+    }
+
+    /**
+     * @return phase weight of the pieces on the board, {@link PositionEvaluator#MAX_PHASE}
+     * at the start of a game and 0 with only kings and pawns left
+     */
+    public int gamePhase() {
+        return phase;
+    }
+
+    /**
+     * @return mask of every occupied square
+     */
+    public long occupancy() {
+        return occupied;
+    }
+
+    /**
+     * @return mask of the squares occupied by the given team
+     */
+    public long occupancy(ChessGame.TeamColor color) {
+        return colors[color.ordinal()];
+    }
+
+    /**
+     * @return square of the team's king, or -1 if the team has no king or more than
+     * one (possible on boards set up by hand)
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        long kings = pieces[pieceIndex(color, ChessPiece.PieceType.KING)];
+        return (kings & kings - 1) == 0 && kings != 0 ? Long.numberOfTrailingZeros(kings) : -1;
+    }
+
+    /**
+     * @return number of pieces the team has on the board
+     */
+    public int pieceCount(ChessGame.TeamColor color) {
+        return Long.bitCount(colors[color.ordinal()]);
+    }
+
+    /**
+     * @return mask of the squares holding the given piece
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
     }
 
     /**
@@ -53,42 +391,75 @@ public class ChessBoard implements Iterable<ChessPosition> {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        board = new ChessPiece[8][8];
-        addPiece(new ChessPosition(1,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(2,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-
-        addPiece(new ChessPosition(8,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(7,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        pieces = new long[12];
+        colors = new long[2];
+        shared = false;
+        listener = null;
+        occupied = 0L;
+        key = 0L;
+        midgame = 0;
+        endgame = 0;
+        phase = 0;
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(2, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(7, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
     }
 
+    /**
+     * Visits every piece on the board in square order, a1 through h8, without
+     * allocating
+     */
+    public void forEachOccupied(PieceConsumer action) {
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            action.accept(square, ChessPiece.of(pieceIndexAt(square)));
+        }
+    }
+
+    /**
+     * Visits the given team's pieces in square order without allocating
+     */
+    public void forEachOccupied(ChessGame.TeamColor color, PieceConsumer action) {
+        for (long remaining = colors[color.ordinal()]; remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            action.accept(square, ChessPiece.of(pieceIndexAt(square)));
+        }
+    }
+
+    /**
+     * Visits all 64 positions, a1 through h8. {@link #forEachOccupied} and the
+     * masks from {@link #occupancy()} avoid both the iterator and empty squares.
+     */
     @Override
     public Iterator<ChessPosition> iterator() {
         return new Iterator<>() {
@@ -108,7 +479,7 @@ public class ChessBoard implements Iterable<ChessPosition> {
                     c = 1;
                     r += 1;
                 }
-                return new ChessPosition(r, c);
+                return ChessPosition.of(r, c);
             }
         };
     }
@@ -118,11 +489,39 @@ public class ChessBoard implements Iterable<ChessPosition> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(board, that.board);
+        return key == that.key && Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(key);
+    }
+
+    /**
+     * Keeps the JSON form of a board as the 8x8 piece grid clients already expect
+     */
+    static class Adapter implements JsonSerializer<ChessBoard>, JsonDeserializer<ChessBoard> {
+        @Override
+        public JsonElement serialize(ChessBoard src, Type typeOfSrc, JsonSerializationContext context) {
+            ChessPiece[][] grid = new ChessPiece[8][8];
+            src.forEachOccupied((square, piece) -> grid[square >>> 3][square & 7] = piece);
+            JsonObject json = new JsonObject();
+            json.add("board", context.serialize(grid));
+            return json;
+        }
+
+        @Override
+        public ChessBoard deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+                throws JsonParseException {
+            ChessPiece[][] grid = context.deserialize(json.getAsJsonObject().get("board"), ChessPiece[][].class);
+            ChessBoard board = new ChessBoard();
+            for (int square = 0; square < 64; square++) {
+                ChessPiece piece = grid[square >>> 3][square & 7];
+                if (piece != null) {
+                    board.addPiece(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+                }
+            }
+            return board;
+        }
     }
 }
@@ -14,6 +14,14 @@ public class ChessGame {
     ChessBoard board = new ChessBoard();
     TeamColor currentTurn = TeamColor.WHITE;
     public boolean gameOver = false;
+    // Legal moves of the side to move, valid while version and the board's key are
+    // unchanged. Transient so they stay out of the JSON sent to clients.
+    private transient int version;
+    private transient int cachedVersion = -1;
+    private transient long cachedKey;
+    private transient int[] cachedMoves;
+    private transient LegalMoveCache sharedCache;
+
     public ChessGame() {
         board.resetBoard();
     }
@@ -32,6 +40,24 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         this.currentTurn = team;
+        version++;
+    }
+
+    /**
+     * Looks up and stores legal move sets in a cache shared with other games, so a
+     * position any of them has reached is not generated again
+     *
+     * @param cache the shared cache, or null to stop using one
+     */
+    public void setMoveCache(LegalMoveCache cache) {
+        this.sharedCache = cache;
+    }
+
+    /**
+     * @return 64-bit Zobrist key identifying the board and the side to move
+     */
+    public long positionKey() {
+        return board.zobristKey(currentTurn);
     }
 
     /**
@@ -42,6 +68,16 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * State of the game for the team whose turn it is
+     */
+    public enum GameStatus {
+        IN_PROGRESS,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -54,14 +90,133 @@ public class ChessGame {
             return Collections.emptyList();
         }
         ChessPiece piece = board.getPiece(startPosition);
-        Collection<ChessMove> pieceCalculatorMoves;
         if (piece == null) {
             return null;
-        } else {
-            pieceCalculatorMoves = ChessPiece.pieceMoves(board, startPosition);
         }
-        pieceCalculatorMoves.removeIf(move -> !isValidMove(move));
-        return pieceCalculatorMoves;
+        int start = ChessBoard.square(startPosition);
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int move : legalMoves()) {
+            if (Move.from(move) == start) {
+                moves.add(Move.toChessMove(move));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Passes each legal move of the team whose turn it is to the sink as a packed
+     * move (see {@link Move}), stopping when the sink returns false. Nothing is
+     * collected, so counting moves or looking for one particular kind of move costs
+     * no allocation. Like validMoves, a finished game has no moves.
+     *
+     * @return False if the sink stopped early
+     */
+    public boolean forEachLegalMove(MoveSink sink) {
+        if (gameOver) {
+            return true;
+        }
+        int[] known = knownLegalMoves();
+        if (known != null) {
+            for (int move : known) {
+                if (!sink.accept(move)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return new LegalMoveGenerator(board, currentTurn).generate(sink);
+    }
+
+    /**
+     * @return every legal move of the side to move, packed (see {@link Move}), from
+     * the cache when the position has not changed since they were generated, or from
+     * the shared cache when another game has reached it
+     */
+    private int[] legalMoves() {
+        int[] moves = knownLegalMoves();
+        if (moves == null) {
+            MoveList generated = MoveList.scratch();
+            new LegalMoveGenerator(board, currentTurn).generate(generated);
+            moves = generated.toArray();
+            if (sharedCache != null) {
+                sharedCache.put(positionKey(), board.occupancy(), moves);
+            }
+            remember(moves);
+        }
+        return moves;
+    }
+
+    /**
+     * @return the legal moves from this game's cache or the shared cache, or null if
+     * neither has them
+     */
+    private int[] knownLegalMoves() {
+        if (hasCachedMoves()) {
+            return cachedMoves;
+        }
+        int[] moves = sharedCache == null ? null : sharedCache.get(positionKey(), board.occupancy());
+        if (moves != null) {
+            remember(moves);
+        }
+        return moves;
+    }
+
+    private void remember(int[] moves) {
+        cachedMoves = moves;
+        cachedVersion = version;
+        cachedKey = board.zobristKey();
+    }
+
+    private boolean hasCachedMoves() {
+        // The key check catches edits made directly through getBoard()
+        return cachedMoves != null && cachedVersion == version && cachedKey == board.zobristKey();
+    }
+
+    /**
+     * Checks one move against the legal moves already cached for the position, in
+     * this game or the shared cache. Otherwise checks it without generating the
+     * piece's other moves: the piece must belong to the team whose turn it is and be
+     * able to reach the end square, a promotion piece must be given exactly when a
+     * pawn reaches the last row, and the move must not leave the team's king in check
+     *
+     * @param move the move to check
+     * @return True if the move is legal in the current position
+     */
+    public boolean isLegal(ChessMove move) {
+        if (gameOver || !ChessBoard.onBoard(move.getStartPosition()) || !ChessBoard.onBoard(move.getEndPosition())) {
+            return false;
+        }
+        int from = ChessBoard.square(move.getStartPosition());
+        int to = ChessBoard.square(move.getEndPosition());
+        int pieceIndex = board.pieceIndexAt(from);
+        if (pieceIndex < 0 || ChessPiece.of(pieceIndex).getTeamColor() != currentTurn) {
+            return false;
+        }
+        int packed = Move.of(move);
+        int[] known = knownLegalMoves();
+        if (known != null) {
+            for (int legal : known) {
+                if ((legal & ~Move.CAPTURE) == packed) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if ((ChessPiece.pieceTargets(board, from) & 1L << to) == 0) {
+            return false;
+        }
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        boolean promotes = ChessPiece.of(pieceIndex).getPieceType() == ChessPiece.PieceType.PAWN
+                && (to >>> 3 == 0 || to >>> 3 == 7);
+        if (promotes ? promotion == null || promotion == ChessPiece.PieceType.KING
+                || promotion == ChessPiece.PieceType.PAWN : promotion != null) {
+            return false;
+        }
+        int undo = board.makeMove(packed);
+        boolean legal = !isInCheck(currentTurn);
+        board.unmakeMove(packed, undo);
+        return legal;
     }
 
     /**
@@ -71,31 +226,20 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public String makeMove(ChessMove move) throws InvalidMoveException {
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        if (this.currentTurn == board.getPiece(move.getStartPosition()).getTeamColor()
-                && validMoves.contains(move)) {
-            this.board = testMove(move);
-
-            if (isInCheckmate(TeamColor.WHITE)) {
-                gameOver = true;
-                return "WHITE is in checkmate!";
-            }
-            else if (isInCheckmate(TeamColor.BLACK)) {
-                gameOver = true;
-                return "BLACK is in checkmate!";
-            }
-            else if (isInStalemate(TeamColor.WHITE)) {
-                gameOver = true;
-                return "WHITE is in stalemate!";
-            } else if (isInStalemate(TeamColor.BLACK)) {
-                gameOver = true;
-                return "BLACK is in stalemate!";
-            }
+        if (isLegal(move)) {
+            board.makeMove(move);
+            this.currentTurn = opponent(currentTurn);
+            version++;
 
-            if (currentTurn == TeamColor.BLACK) {
-                this.currentTurn = TeamColor.WHITE;
-            } else {
-                this.currentTurn = TeamColor.BLACK;
+            switch (evaluateStatus()) {
+                case CHECKMATE -> {
+                    gameOver = true;
+                    return currentTurn + " is in checkmate!";
+                }
+                case STALEMATE -> {
+                    gameOver = true;
+                    return currentTurn + " is in stalemate!";
+                }
             }
             return null;
 
@@ -111,39 +255,24 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        for (ChessPosition position : board) {
-            if (board.getPiece(position) != null && board.getPiece(position).getTeamColor() != teamColor) {
-                for (ChessMove move : ChessPiece.pieceMoves(board, position)) {
-                    if (board.getPiece(move.getEndPosition()) != null &&
-                            board.getPiece(move.getEndPosition()).getPieceType() == ChessPiece.PieceType.KING
-                            && board.getPiece(move.getEndPosition()).getTeamColor() == teamColor) {
-                        return true;
-                    }
-                }
+        TeamColor enemy = opponent(teamColor);
+        int king = board.kingSquare(teamColor);
+        if (king >= 0) {
+            return board.isSquareAttacked(king, enemy);
+        }
+        for (long kings = board.pieces(teamColor, ChessPiece.PieceType.KING); kings != 0; kings &= kings - 1) {
+            if (board.isSquareAttacked(Long.numberOfTrailingZeros(kings), enemy)) {
+                return true;
             }
         }
         return false;
     }
 
-    private boolean isValidMove(ChessMove move) {
-        TeamColor color = board.getPiece(move.getStartPosition()).getTeamColor();
-        ChessBoard originalBoard = new ChessBoard(this.board);
-        this.board = testMove(move);
-        boolean returnValue = !isInCheck(color);
-        this.board = originalBoard;
-        return returnValue;
-    }
-
-    private ChessBoard testMove(ChessMove move) {
-        ChessBoard board = new ChessBoard(this.board);
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        board.removePiece(move.getStartPosition());
-        if (move.getPromotionPiece() == null) {
-            board.addPiece(move.getEndPosition(), piece);
-        } else {
-            board.addPiece(move.getEndPosition(), new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
-        }
-        return board;
+    /**
+     * @return the other team
+     */
+    public static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -153,17 +282,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInCheck(teamColor) && allMovesForColor(teamColor).isEmpty();
-    }
-
-    private Collection<ChessMove> allMovesForColor(TeamColor teamColor) {
-        Collection<ChessMove> allMoves = new ArrayList<>();
-        for (ChessPosition position : board) {
-            if (board.getPiece(position) != null && board.getPiece(position).getTeamColor() == teamColor) {
-                allMoves.addAll(validMoves(position));
-            }
-        }
-        return allMoves;
+        return isInCheck(teamColor) && !hasMovesThisTurn(teamColor);
     }
 
     /**
@@ -174,7 +293,41 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        return this.getTeamTurn() == teamColor && allMovesForColor(teamColor).isEmpty();
+        return this.getTeamTurn() == teamColor && !hasMovesThisTurn(teamColor);
+    }
+
+    /**
+     * Works out whether the team whose turn it is is in check, checkmate or
+     * stalemate. Only that team's moves are considered, and move generation stops
+     * at the first legal move found.
+     *
+     * @return the status of the team to move
+     */
+    public GameStatus evaluateStatus() {
+        boolean check = isInCheck(currentTurn);
+        // With a shared cache the full move list is worth generating, since isLegal
+        // checks the next move in this position against it, even from a copy of the
+        // game loaded afresh
+        boolean hasMove = hasCachedMoves() || sharedCache != null
+                ? legalMoves().length > 0
+                : hasAnyLegalMove(currentTurn);
+        if (hasMove) {
+            return check ? GameStatus.CHECK : GameStatus.IN_PROGRESS;
+        }
+        return check ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+    }
+
+    /**
+     * @param teamColor the team to generate moves for, regardless of whose turn it is
+     * @return True if the team has at least one legal move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        return new LegalMoveGenerator(board, teamColor).hasAnyMove();
+    }
+
+    private boolean hasMovesThisTurn(TeamColor teamColor) {
+        // Like validMoves, only the team whose turn it is has moves
+        return !gameOver && teamColor == currentTurn && hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -184,6 +337,7 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        version++;
     }
 
     /**
@@ -1,7 +1,10 @@
 package chess;
 
 import chess.pieceMoveCalculators.*;
+import com.google.gson.*;
+import com.google.gson.annotations.JsonAdapter;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -11,7 +14,17 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPiece.Adapter.class)
 public class ChessPiece {
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
 
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
@@ -27,6 +40,20 @@ public class ChessPiece {
         type = copyPiece.getPieceType();
     }
 
+    /**
+     * @return the shared instance for the given color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    /**
+     * @return the shared instance stored in the bitboard with the given index
+     */
+    public static ChessPiece of(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -84,6 +111,35 @@ public class ChessPiece {
         throw new RuntimeException("Piece not implemented!");
     }
 
+    /**
+     * Streaming counterpart of {@link #pieceMoves(ChessBoard, ChessPosition)}: passes
+     * each move of the piece on the square to the sink as a packed move
+     *
+     * @param square bit index of a square holding a piece
+     * @return False if the sink asked to stop
+     */
+    public static boolean pieceMoves(ChessBoard board, int square, MoveSink sink) {
+        return PieceMoveCalculator.addMoves(board, square, pieceTargets(board, square), sink);
+    }
+
+    /**
+     * Calculates the squares the piece on the given square can move to, with the
+     * same rules as {@link #pieceMoves}
+     *
+     * @param square bit index of a square holding a piece
+     * @return mask of target squares
+     */
+    public static long pieceTargets(ChessBoard board, int square) {
+        return switch (TYPES[board.pieceIndexAt(square) % 6]) {
+            case BISHOP -> BishopMoveCalculator.targets(board, square);
+            case ROOK -> RookMoveCalculator.targets(board, square);
+            case QUEEN -> QueenMoveCalculator.targets(board, square);
+            case KING -> KingMoveCalculator.targets(board, square);
+            case KNIGHT -> KnightMoveCalculator.targets(board, square);
+            case PAWN -> PawnMoveCalculator.targets(board, square);
+        };
+    }
+
     @Override
     public String toString() {
         String str = "";
@@ -114,4 +170,18 @@ public class ChessPiece {
     public int hashCode() {
         return Objects.hash(pieceColor, type);
     }
+
+    /**
+     * Resolves deserialized pieces to the shared instances
+     */
+    static class Adapter implements JsonDeserializer<ChessPiece> {
+        @Override
+        public ChessPiece deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+                throws JsonParseException {
+            JsonObject object = json.getAsJsonObject();
+            ChessGame.TeamColor color = context.deserialize(object.get("pieceColor"), ChessGame.TeamColor.class);
+            PieceType type = context.deserialize(object.get("type"), PieceType.class);
+            return of(color, type);
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package chess;
 
+import com.google.gson.*;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.lang.reflect.Type;
 import java.util.Objects;
 
 /**
@@ -8,7 +12,20 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPosition.Adapter.class)
 public class ChessPosition {
+    // Canonical instances cover the board plus a two-square margin, which is as far
+    // as the step methods below are chained off the board by the move calculators
+    private static final int MIN = -1;
+    private static final int SPAN = 12;
+    private static final ChessPosition[] POSITIONS = new ChessPosition[SPAN * SPAN];
+    static {
+        for (int row = MIN; row < MIN + SPAN; row++) {
+            for (int col = MIN; col < MIN + SPAN; col++) {
+                POSITIONS[(row - MIN) * SPAN + col - MIN] = new ChessPosition(row, col);
+            }
+        }
+    }
 
     private final int row;
     private final int col;
@@ -18,6 +35,16 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * @return the shared instance for the given square
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < MIN || row >= MIN + SPAN || col < MIN || col >= MIN + SPAN) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - MIN) * SPAN + col - MIN];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -35,28 +62,28 @@ public class ChessPosition {
     }
 
     public ChessPosition t() {
-        return new ChessPosition(this.getRow() + 1, this.getColumn());
+        return of(this.getRow() + 1, this.getColumn());
     }
     public ChessPosition tr() {
-        return new ChessPosition(this.getRow() + 1, this.getColumn() + 1);
+        return of(this.getRow() + 1, this.getColumn() + 1);
     }
     public ChessPosition r() {
-        return new ChessPosition(this.getRow(), this.getColumn() + 1);
+        return of(this.getRow(), this.getColumn() + 1);
     }
     public ChessPosition br() {
-        return new ChessPosition(this.getRow() - 1, this.getColumn() + 1);
+        return of(this.getRow() - 1, this.getColumn() + 1);
     }
     public ChessPosition b() {
-        return new ChessPosition(this.getRow() - 1, this.getColumn());
+        return of(this.getRow() - 1, this.getColumn());
     }
     public ChessPosition bl() {
-        return new ChessPosition(this.getRow() - 1, this.getColumn() - 1);
+        return of(this.getRow() - 1, this.getColumn() - 1);
     }
     public ChessPosition l() {
-        return new ChessPosition(this.getRow(), this.getColumn() - 1);
+        return of(this.getRow(), this.getColumn() - 1);
     }
     public ChessPosition tl() {
-        return new ChessPosition(this.getRow() + 1, this.getColumn() - 1);
+        return of(this.getRow() + 1, this.getColumn() - 1);
     }
 
     @Override
@@ -76,4 +103,16 @@ public class ChessPosition {
     public String toString() {
         return row + "," + col;
     }
+
+    /**
+     * Resolves deserialized positions to the shared instances
+     */
+    static class Adapter implements JsonDeserializer<ChessPosition> {
+        @Override
+        public ChessPosition deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+                throws JsonParseException {
+            JsonObject object = json.getAsJsonObject();
+            return of(object.get("row").getAsInt(), object.get("col").getAsInt());
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package chess;
+
+/**
+ * Reads and writes the piece placement and side-to-move fields of Forsyth-Edwards
+ * Notation. Castling, en passant and move counters are not part of this game's
+ * rules, so they are ignored when reading and written as "- - 0 1".
+ */
+public final class Fen {
+    private static final String PIECE_CHARS = "kqbnrp";
+
+    private Fen() {}
+
+    /**
+     * @param fen a FEN string; only the first two fields are required
+     * @return a game with the described board and side to move
+     * @throws IllegalArgumentException if the placement field is malformed
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                row--;
+                col = 1;
+            } else if (Character.isDigit(c)) {
+                col += c - '0';
+            } else {
+                int type = PIECE_CHARS.indexOf(Character.toLowerCase(c));
+                if (type < 0 || row < 1 || col > 8) {
+                    throw new IllegalArgumentException("Bad FEN placement: " + fields[0]);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(color, ChessPiece.PieceType.values()[type]));
+                col++;
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(fields.length > 1 && fields[1].equals("b") ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        return game;
+    }
+
+    public static String toFen(ChessGame game) {
+        StringBuilder fen = new StringBuilder();
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(piece);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b").append(" - - 0 1");
+        return fen.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size table of legal move sets keyed by {@link ChessGame#positionKey()}, meant
+ * to be shared by every game a server hosts so that common positions are generated
+ * once. Safe for concurrent use without locking.
+ * <p>
+ * Each key maps to a single slot. Storing a position whose slot holds a different
+ * one evicts the old entry, so the table never grows past its capacity. Entries also
+ * record the board's occupancy, which turns a Zobrist collision into a miss rather
+ * than a wrong move set.
+ */
+public final class LegalMoveCache {
+    private record Entry(long key, long occupancy, int[] moves) {}
+
+    /**
+     * Counter values at the time they were read
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * @param capacity maximum number of positions kept, rounded up to a power of two
+     */
+    public LegalMoveCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        int slotCount = Integer.highestOneBit(capacity);
+        if (slotCount < capacity) {
+            slotCount <<= 1;
+        }
+        slots = new AtomicReferenceArray<>(slotCount);
+        mask = slotCount - 1;
+    }
+
+    /**
+     * @return the packed legal moves (see {@link Move}) stored for the position, or
+     * null if it is not cached. The array is shared and must not be modified.
+     */
+    public int[] get(long positionKey, long occupancy) {
+        Entry entry = slots.get(index(positionKey));
+        if (entry != null && entry.key() == positionKey && entry.occupancy() == occupancy) {
+            hits.increment();
+            return entry.moves();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the legal moves of a position, evicting whatever shared its slot. The
+     * array must not be modified afterwards.
+     */
+    public void put(long positionKey, long occupancy, int[] moves) {
+        Entry previous = slots.getAndSet(index(positionKey), new Entry(positionKey, occupancy, moves));
+        if (previous == null) {
+            size.increment();
+        } else if (previous.key() != positionKey || previous.occupancy() != occupancy) {
+            evictions.increment();
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.getAndSet(i, null) != null) {
+                size.decrement();
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size.intValue(), slots.length());
+    }
+
+    private int index(long positionKey) {
+        return (int) (positionKey ^ positionKey >>> 32) & mask;
+    }
+}
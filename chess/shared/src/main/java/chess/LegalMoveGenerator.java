@@ -0,0 +1,188 @@
+package chess;
+
+import chess.pieceMoveCalculators.Lines;
+import chess.pieceMoveCalculators.MagicBitboards;
+import chess.pieceMoveCalculators.PieceMoveCalculator;
+
+import java.util.Collection;
+
+/**
+ * Generates strictly legal moves for one team. The pieces giving check and the
+ * pieces pinned to the king are found once up front, after which each piece's
+ * targets only need to be narrowed by a couple of masks: in check, non-king
+ * moves must capture the checker or block it, and pinned pieces may only move
+ * along the pin ray.
+ */
+public class LegalMoveGenerator {
+    private final ChessBoard board;
+    private final ChessGame.TeamColor color;
+    private final ChessGame.TeamColor enemy;
+    private final int king;
+    private long checkMask = -1L;
+    private long pinned;
+
+    public LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        this.enemy = ChessGame.opponent(color);
+        // Boards set up by hand may have no king or several; those fall back to
+        // trying each move (see legalWithoutSingleKing)
+        this.king = board.kingSquare(color);
+        if (king < 0) {
+            return;
+        }
+
+        long checkers = board.attackersTo(king, enemy, board.occupancy());
+        if (Long.bitCount(checkers) > 1) {
+            checkMask = 0;
+        } else if (checkers != 0) {
+            checkMask = checkers | Lines.between(king, Long.numberOfTrailingZeros(checkers));
+        }
+
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long enemies = board.occupancy(enemy);
+        long snipers = (MagicBitboards.rookAttacks(king, enemies) & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (MagicBitboards.bishopAttacks(king, enemies) & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Lines.between(king, Long.numberOfTrailingZeros(snipers)) & board.occupancy();
+            if (Long.bitCount(blockers) == 1 && (blockers & board.occupancy(color)) != 0) {
+                pinned |= blockers;
+            }
+        }
+    }
+
+    /**
+     * @return True if the team's king is attacked; always false for boards without
+     * exactly one king
+     */
+    public boolean inCheck() {
+        return checkMask != -1L;
+    }
+
+    /**
+     * @param square bit index of a square holding one of this team's pieces
+     * @return mask of the squares the piece can legally move to
+     */
+    public long targets(int square) {
+        long targets = ChessPiece.pieceTargets(board, square);
+        if (king < 0) {
+            return legalWithoutSingleKing(square, targets);
+        }
+        if (square == king) {
+            long legal = 0;
+            long withoutKing = board.occupancy() & ~(1L << king);
+            for (; targets != 0; targets &= targets - 1) {
+                int target = Long.numberOfTrailingZeros(targets);
+                if (board.attackersTo(target, enemy, withoutKing) == 0) {
+                    legal |= 1L << target;
+                }
+            }
+            return legal;
+        }
+        targets &= checkMask;
+        if ((pinned & 1L << square) != 0) {
+            targets &= Lines.line(king, square);
+        }
+        return targets;
+    }
+
+    public void addMoves(int square, Collection<ChessMove> moves) {
+        PieceMoveCalculator.addMoves(board, square, targets(square), moves);
+    }
+
+    /**
+     * @return False if the sink asked to stop
+     */
+    public boolean addMoves(int square, MoveSink moves) {
+        return PieceMoveCalculator.addMoves(board, square, targets(square), moves);
+    }
+
+    /**
+     * Passes every legal move of the team to the sink as packed moves, in square
+     * order, until the sink asks to stop
+     *
+     * @return False if the sink stopped generation early
+     */
+    public boolean generate(MoveSink moves) {
+        for (long own = board.occupancy(color); own != 0; own &= own - 1) {
+            if (!addMoves(Long.numberOfTrailingZeros(own), moves)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes only the legal captures and promotions to the sink (see
+     * {@link PieceMoveCalculator#tacticalTargets}). Together with
+     * {@link #generateQuiets} this produces the same moves as {@link #generate}.
+     *
+     * @return False if the sink stopped generation early
+     */
+    public boolean generateCaptures(MoveSink moves) {
+        for (long own = board.occupancy(color); own != 0; own &= own - 1) {
+            int square = Long.numberOfTrailingZeros(own);
+            long tactical = PieceMoveCalculator.tacticalTargets(board, square, targets(square));
+            if (!PieceMoveCalculator.addMoves(board, square, tactical, moves)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes the legal moves that neither capture nor promote to the sink
+     *
+     * @return False if the sink stopped generation early
+     */
+    public boolean generateQuiets(MoveSink moves) {
+        for (long own = board.occupancy(color); own != 0; own &= own - 1) {
+            int square = Long.numberOfTrailingZeros(own);
+            long quiet = PieceMoveCalculator.quietTargets(board, square, targets(square));
+            if (!PieceMoveCalculator.addMoves(board, square, quiet, moves)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the team has a legal move, stopping at the first piece that has
+     * one. The king is tried first since it is usually the only piece with moves
+     * when few are left.
+     */
+    public boolean hasAnyMove() {
+        if (king >= 0 && targets(king) != 0) {
+            return true;
+        }
+        for (long own = board.occupancy(color) & ~(king >= 0 ? 1L << king : 0); own != 0; own &= own - 1) {
+            if (targets(Long.numberOfTrailingZeros(own)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long legalWithoutSingleKing(int square, long targets) {
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            return targets;
+        }
+        long legal = 0;
+        ChessPosition start = ChessBoard.position(square);
+        for (; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            ChessMove move = new ChessMove(start, ChessBoard.position(target), null);
+            int undo = board.makeMove(move);
+            boolean safe = true;
+            for (long remaining = board.pieces(color, ChessPiece.PieceType.KING); remaining != 0; remaining &= remaining - 1) {
+                safe &= !board.isSquareAttacked(Long.numberOfTrailingZeros(remaining), enemy);
+            }
+            board.unmakeMove(move, undo);
+            if (safe) {
+                legal |= 1L << target;
+            }
+        }
+        return legal;
+    }
+}
@@ -0,0 +1,61 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move generation can work without allocating
+ * {@link ChessMove} objects.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (0 = a1 through
+ * 63 = h8, see {@link ChessBoard#square}). Bits 12-14 hold the promotion piece
+ * type's ordinal plus one, or 0 for no promotion. Bit 15 is set when the move
+ * captures a piece.
+ */
+public final class Move {
+    public static final int NONE = 0;
+    public static final int CAPTURE = 1 << 15;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {}
+
+    /**
+     * @param promotion ordinal of the promotion piece type, or -1 for none
+     */
+    public static int encode(int from, int to, int promotion, int flags) {
+        return from | to << 6 | (promotion + 1) << 12 | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 63;
+    }
+
+    /**
+     * @return ordinal of the promotion piece type, or -1 if the move is not a promotion
+     */
+    public static int promotion(int move) {
+        return (move >>> 12 & 7) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return the packed form of a move, without the capture flag since that depends
+     * on the board
+     */
+    public static int of(ChessMove move) {
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        return encode(ChessBoard.square(move.getStartPosition()), ChessBoard.square(move.getEndPosition()),
+                promotion == null ? -1 : promotion.ordinal(), 0);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int promotion = promotion(move);
+        return new ChessMove(ChessBoard.position(from(move)), ChessBoard.position(to(move)),
+                promotion < 0 ? null : TYPES[promotion]);
+    }
+}
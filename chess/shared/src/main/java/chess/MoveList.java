@@ -0,0 +1,102 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable, fixed-capacity list of packed moves (see {@link Move}). Lists are meant
+ * to be allocated once and cleared between uses, either by the caller or through
+ * {@link #forPly}, which hands out one list per search depth per thread.
+ */
+public final class MoveList implements MoveSink {
+    // No legal chess position has more than 218 moves
+    public static final int CAPACITY = 256;
+    public static final int MAX_PLY = 128;
+
+    private static final ThreadLocal<MoveList[]> PLY_LISTS = ThreadLocal.withInitial(() -> new MoveList[MAX_PLY]);
+    private static final ThreadLocal<MoveList> SCRATCH = ThreadLocal.withInitial(MoveList::new);
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    /**
+     * @param ply search depth the list is used at; lists for different plies are
+     *            independent, so recursive generation can keep one list per level
+     * @return this thread's list for the ply, cleared
+     */
+    public static MoveList forPly(int ply) {
+        MoveList[] lists = PLY_LISTS.get();
+        MoveList list = lists[ply];
+        if (list == null) {
+            list = new MoveList();
+            lists[ply] = list;
+        }
+        list.clear();
+        return list;
+    }
+
+    /**
+     * @return this thread's list for short-lived use outside a search, cleared; it is
+     * separate from the per-ply lists so it can be used while a search is running
+     */
+    public static MoveList scratch() {
+        MoveList list = SCRATCH.get();
+        list.clear();
+        return list;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    /**
+     * Adds the move; a list never stops generation
+     */
+    @Override
+    public boolean accept(int move) {
+        add(move);
+        return true;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Converts every move to a {@link ChessMove} and adds it to the collection
+     */
+    public void addTo(Collection<ChessMove> collection) {
+        for (int i = 0; i < size; i++) {
+            collection.add(Move.toChessMove(moves[i]));
+        }
+    }
+}
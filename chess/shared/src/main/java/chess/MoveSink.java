@@ -0,0 +1,14 @@
+package chess;
+
+/**
+ * Receives packed moves (see {@link Move}) one at a time as they are generated, so
+ * callers that only count moves or look for one never build a collection
+ */
+@FunctionalInterface
+public interface MoveSink {
+    /**
+     * @param move the next packed move
+     * @return True to keep generating, false to stop
+     */
+    boolean accept(int move);
+}
@@ -0,0 +1,170 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"), which
+ * both checks move generation against published counts and measures its speed.
+ * <p>
+ * Run as a program it walks the reference positions below:
+ * {@code Perft [maxDepth] [parallel]}. It prints nodes per second for each depth
+ * and exits with status 1 if any count differs from the published one.
+ */
+public final class Perft {
+
+    /**
+     * A position with its published node counts, starting at depth 1. Only positions
+     * and depths whose counts involve no castling or en passant are listed, since
+     * this game does not have those moves.
+     */
+    public record Reference(String name, String fen, long... counts) {}
+
+    public static final List<Reference> REFERENCES = List.of(
+            new Reference("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                    20, 400, 8902, 197281),
+            new Reference("promotions", "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+                    24, 496, 9483, 182838, 3605103),
+            new Reference("rook endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191),
+            new Reference("middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594)
+    );
+
+    public record Result(long nodes, long nanos) {
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    private Perft() {}
+
+    /**
+     * @return number of leaf nodes of the legal move tree below the position
+     */
+    public static long count(ChessBoard board, ChessGame.TeamColor toMove, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = MoveList.forPly(depth);
+        new LegalMoveGenerator(board, toMove).generate(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        ChessGame.TeamColor next = ChessGame.opponent(toMove);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            nodes += count(board, next, depth - 1);
+            board.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the node count below each root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessBoard board, ChessGame.TeamColor toMove, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int move : rootMoves(board, toMove)) {
+            int undo = board.makeMove(move);
+            counts.put(Move.toChessMove(move), count(board, ChessGame.opponent(toMove), depth - 1));
+            board.unmakeMove(move, undo);
+        }
+        return counts;
+    }
+
+    /**
+     * Same as {@link #count}, but each root move is counted as its own fork-join task
+     * on a copy of the board
+     */
+    public static long countParallel(ChessBoard board, ChessGame.TeamColor toMove, int depth, ForkJoinPool pool) {
+        if (depth < 2) {
+            return count(board, toMove, depth);
+        }
+        return pool.invoke(new RootTask(board, toMove, depth));
+    }
+
+    public static Result run(ChessGame game, int depth, boolean parallel) {
+        ChessBoard board = new ChessBoard(game.getBoard());
+        long start = System.nanoTime();
+        long nodes = parallel
+                ? countParallel(board, game.getTeamTurn(), depth, ForkJoinPool.commonPool())
+                : count(board, game.getTeamTurn(), depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    private static List<Integer> rootMoves(ChessBoard board, ChessGame.TeamColor toMove) {
+        MoveList moves = new MoveList();
+        new LegalMoveGenerator(board, toMove).generate(moves);
+        List<Integer> list = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            list.add(moves.get(i));
+        }
+        return list;
+    }
+
+    // Fork/join tasks are Serializable by inheritance, but these are never serialized
+    @SuppressWarnings("serial")
+    private static class RootTask extends RecursiveTask<Long> {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor toMove;
+        private final int depth;
+        private final int move;
+
+        RootTask(ChessBoard board, ChessGame.TeamColor toMove, int depth) {
+            this(board, toMove, depth, Move.NONE);
+        }
+
+        private RootTask(ChessBoard board, ChessGame.TeamColor toMove, int depth, int move) {
+            this.board = board;
+            this.toMove = toMove;
+            this.depth = depth;
+            this.move = move;
+        }
+
+        @Override
+        protected Long compute() {
+            if (move != Move.NONE) {
+                ChessBoard copy = new ChessBoard(board);
+                copy.makeMove(move);
+                return count(copy, ChessGame.opponent(toMove), depth - 1);
+            }
+            List<RootTask> tasks = new ArrayList<>();
+            for (int rootMove : rootMoves(board, toMove)) {
+                tasks.add(new RootTask(board, toMove, depth, rootMove));
+            }
+            long nodes = 0;
+            for (RootTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        boolean parallel = args.length > 1 && args[1].equals("parallel");
+        boolean allMatch = true;
+        for (Reference reference : REFERENCES) {
+            ChessGame game = Fen.parse(reference.fen());
+            for (int depth = 1; depth <= Math.min(maxDepth, reference.counts().length); depth++) {
+                Result result = run(game, depth, parallel);
+                long expected = reference.counts()[depth - 1];
+                boolean match = result.nodes() == expected;
+                allMatch &= match;
+                System.out.printf("%-14s depth %d: %,12d nodes %s %,14.0f nodes/s%n", reference.name(), depth,
+                        result.nodes(), match ? "ok      " : "MISMATCH (expected " + expected + ")",
+                        result.nodesPerSecond());
+            }
+        }
+        if (!allMatch) {
+            System.exit(1);
+        }
+    }
+}
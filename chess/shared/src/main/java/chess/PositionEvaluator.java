@@ -0,0 +1,160 @@
+package chess;
+
+/**
+ * Material and piece-square evaluation, tapered between middlegame and endgame.
+ * <p>
+ * Every piece has a middlegame and an endgame value for each square, and a weight
+ * towards the game phase: 1 per knight or bishop, 2 per rook and 4 per queen, 24
+ * with every piece on the board. The board keeps the sums of all three as pieces
+ * are added and removed, so an evaluation costs a few multiplications however many
+ * pieces there are. The score blends the two sums by phase, sliding from the
+ * middlegame values towards the endgame ones as pieces come off.
+ * <p>
+ * {@code PositionEvaluator::evaluate} fits {@link chess.engine.Evaluator}.
+ */
+public final class PositionEvaluator {
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] MIDGAME_VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES = {0, 940, 300, 290, 530, 120};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    // Piece-square bonuses from white's side, laid out as the board is seen from
+    // white: the first row is rank 8, a8 through h8
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+    // Passed or not, a pawn near promotion matters most once the pieces are gone
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    /**
+     * Value of each piece on each square, by bitboard index (see
+     * {@link ChessBoard#pieceIndex}) then square, counted positive for white and
+     * negative for black
+     */
+    static final int[][] MIDGAME = table(
+            KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME, MIDGAME_VALUES);
+    static final int[][] ENDGAME = table(
+            KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME, ENDGAME_VALUES);
+    /**
+     * Phase weight by bitboard index
+     */
+    static final int[] PHASE = new int[12];
+
+    static {
+        for (int index = 0; index < 12; index++) {
+            PHASE[index] = PHASE_WEIGHTS[index % 6];
+        }
+    }
+
+    private PositionEvaluator() {}
+
+    /**
+     * @return score in centipawns from the point of view of the team to move,
+     * positive when that team is better off
+     */
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor toMove) {
+        int score = evaluate(board);
+        return toMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * @return score in centipawns from white's point of view
+     */
+    public static int evaluate(ChessBoard board) {
+        // Promotions can push the phase past its starting value
+        int phase = Math.min(board.gamePhase(), MAX_PHASE);
+        return (board.midgameScore() * phase + board.endgameScore() * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+
+    private static int[][] table(int[] king, int[] queen, int[] bishop, int[] knight, int[] rook, int[] pawn,
+                                 int[] values) {
+        int[][] byType = {king, queen, bishop, knight, rook, pawn};
+        int[][] table = new int[12][64];
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // a8 is first in the layout and square 56; black sees it mirrored
+                table[type][square] = values[type] + byType[type][square ^ 56];
+                table[6 + type][square] = -(values[type] + byType[type][square]);
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,16 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Scores a position for the search
+ */
+@FunctionalInterface
+public interface Evaluator {
+    /**
+     * @return score in centipawns from the point of view of the team to move,
+     * positive when that team is better off
+     */
+    int evaluate(ChessBoard board, ChessGame.TeamColor toMove);
+}
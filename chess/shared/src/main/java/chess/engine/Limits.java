@@ -0,0 +1,26 @@
+package chess.engine;
+
+/**
+ * When a search stops: after completing maxDepth, or as soon as it has visited
+ * maxNodes nodes or run for maxMillis milliseconds. A node or time limit of 0
+ * means no limit.
+ */
+public record Limits(int maxDepth, long maxNodes, long maxMillis) {
+    public Limits {
+        if (maxDepth < 1 || maxDepth > Search.MAX_DEPTH) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + Search.MAX_DEPTH);
+        }
+    }
+
+    public static Limits depth(int maxDepth) {
+        return new Limits(maxDepth, 0, 0);
+    }
+
+    public static Limits nodes(long maxNodes) {
+        return new Limits(Search.MAX_DEPTH, maxNodes, 0);
+    }
+
+    public static Limits millis(long maxMillis) {
+        return new Limits(Search.MAX_DEPTH, 0, maxMillis);
+    }
+}
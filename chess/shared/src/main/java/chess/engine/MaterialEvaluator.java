@@ -0,0 +1,27 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.pieceMoveCalculators.StaticExchange;
+
+/**
+ * Counts material with the piece values the exchange evaluation uses
+ */
+public final class MaterialEvaluator implements Evaluator {
+    private static final ChessPiece.PieceType[] MATERIAL = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.PAWN
+    };
+
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor toMove) {
+        int score = 0;
+        for (ChessPiece.PieceType type : MATERIAL) {
+            int count = Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE, type))
+                    - Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK, type));
+            score += count * StaticExchange.value(type);
+        }
+        return toMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
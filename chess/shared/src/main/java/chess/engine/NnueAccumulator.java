@@ -0,0 +1,59 @@
+package chess.engine;
+
+import chess.ChessBoard;
+
+/**
+ * The hidden layer of a {@link NnueNetwork} before activation, from both sides,
+ * for one board. Attached to the board as its listener, it adds or subtracts one
+ * row of feature weights per side for each piece put on or taken off, in int16
+ * arithmetic.
+ */
+final class NnueAccumulator implements ChessBoard.PieceListener {
+    final NnueNetwork network;
+    final short[] white;
+    final short[] black;
+    // Hidden values widened for the output layer, reused between evaluations
+    final int[] activated;
+
+    /**
+     * Fills the accumulator from the pieces on the board. It must then be attached to
+     * the board to stay current.
+     */
+    NnueAccumulator(NnueNetwork network, ChessBoard board) {
+        this.network = network;
+        white = network.hiddenBiases.clone();
+        black = network.hiddenBiases.clone();
+        activated = new int[network.hidden];
+        for (long remaining = board.occupancy(); remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            pieceAdded(square, board.pieceIndexAt(square));
+        }
+    }
+
+    @Override
+    public void pieceAdded(int square, int pieceIndex) {
+        add(white, NnueNetwork.whiteFeature(square, pieceIndex));
+        add(black, NnueNetwork.blackFeature(square, pieceIndex));
+    }
+
+    @Override
+    public void pieceRemoved(int square, int pieceIndex) {
+        subtract(white, NnueNetwork.whiteFeature(square, pieceIndex));
+        subtract(black, NnueNetwork.blackFeature(square, pieceIndex));
+    }
+
+    // Plain loops over whole short arrays, which the JIT turns into vector instructions
+    private void add(short[] values, int feature) {
+        short[] weights = network.featureWeights[feature];
+        for (int i = 0; i < values.length; i++) {
+            values[i] += weights[i];
+        }
+    }
+
+    private void subtract(short[] values, int feature) {
+        short[] weights = network.featureWeights[feature];
+        for (int i = 0; i < values.length; i++) {
+            values[i] -= weights[i];
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PositionEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Scores positions with a {@link NnueNetwork}. The first time a board is evaluated
+ * an accumulator is filled from its pieces and attached to it as its
+ * {@link ChessBoard.PieceListener}; after that, moves made on the board keep the
+ * accumulator current, and an evaluation only activates the hidden layer and sums
+ * the output. A search making and taking back moves on one board therefore fills
+ * the accumulator once.
+ * <p>
+ * Safe to share between threads as long as each board is evaluated by one thread
+ * at a time, as the search's boards are.
+ */
+public final class NnueEvaluator implements Evaluator {
+    private final NnueNetwork network;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this.network = network;
+    }
+
+    /**
+     * Loads the network from a weights file if there is a usable one, and otherwise
+     * falls back to the classical evaluator, so an analysis feature keeps working
+     * on hosts without the file. Callers that need to know why a file was not
+     * usable can call {@link NnueNetwork#load} themselves.
+     *
+     * @param weights  path of the weights file, or null for none
+     * @param fallback evaluator used when the file is missing or cannot be loaded
+     */
+    public static Evaluator loadOrFallback(Path weights, Evaluator fallback) {
+        if (weights == null || !Files.isRegularFile(weights)) {
+            return fallback;
+        }
+        try {
+            return new NnueEvaluator(NnueNetwork.load(weights));
+        } catch (IOException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * @return {@link #loadOrFallback(Path, Evaluator)} with {@link PositionEvaluator}
+     * as the fallback
+     */
+    public static Evaluator loadOrClassical(Path weights) {
+        return loadOrFallback(weights, PositionEvaluator::evaluate);
+    }
+
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor toMove) {
+        NnueAccumulator accumulator;
+        if (board.pieceListener() instanceof NnueAccumulator attached && attached.network == network) {
+            accumulator = attached;
+        } else {
+            accumulator = new NnueAccumulator(network, board);
+            board.setPieceListener(accumulator);
+        }
+        return toMove == ChessGame.TeamColor.WHITE
+                ? output(accumulator, accumulator.white, accumulator.black)
+                : output(accumulator, accumulator.black, accumulator.white);
+    }
+
+    /**
+     * @return the network's output in centipawns for the side whose hidden values
+     * are given first
+     */
+    private int output(NnueAccumulator accumulator, short[] us, short[] them) {
+        int[] activated = accumulator.activated;
+        // The network guarantees neither side's sum can overflow
+        long sum = (long) network.outputBias
+                + dot(widen(us, activated), network.ownOutputWeights)
+                + dot(widen(them, activated), network.otherOutputWeights);
+        return (int) (sum * NnueNetwork.SCALE / (NnueNetwork.QA * NnueNetwork.QB));
+    }
+
+    // Widening first keeps each loop to one element size, so the JIT vectorizes both
+    private static int[] widen(short[] values, int[] widened) {
+        for (int i = 0; i < values.length; i++) {
+            widened[i] = values[i];
+        }
+        return widened;
+    }
+
+    private static int dot(int[] values, int[] weights) {
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += Math.min(Math.max(values[i], 0), NnueNetwork.QA) * weights[i];
+        }
+        return sum;
+    }
+}
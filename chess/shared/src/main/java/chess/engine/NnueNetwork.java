@@ -0,0 +1,181 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Weights of a small quantized evaluation network: 768 inputs, one per piece
+ * bitboard index and square, feeding a hidden layer of int16 neurons once from
+ * white's side and once from black's, then a clipped ReLU and one output neuron.
+ * Only the weights of pieces actually on the board contribute to the hidden layer,
+ * and a move changes at most three of them, which is what lets
+ * {@link NnueEvaluator} update it incrementally.
+ * <p>
+ * The weights file is little-endian: the int {@link #MAGIC}, the int hidden size,
+ * then the feature weights as 768 rows of hidden-size shorts, the hidden biases,
+ * the output weights (hidden-size shorts for the side to move, then as many for the
+ * other side) and last the int output bias. Weights are quantized as usual for such
+ * networks: hidden values are scaled by {@link #QA} and output weights by
+ * {@link #QB}, and the trainer must keep hidden sums within the int16 range.
+ * <p>
+ * A network is immutable, so one can be shared by every thread.
+ */
+public final class NnueNetwork {
+    public static final int MAGIC = 0x45554E4E;
+    public static final int INPUTS = 768;
+    public static final int QA = 255;
+    public static final int QB = 64;
+    // Converts the output to centipawns
+    public static final int SCALE = 400;
+    private static final int MAX_HIDDEN = 4096;
+
+    final int hidden;
+    // One row per input, so updates add whole arrays, which the JIT vectorizes
+    // where it would not with an offset into one long array
+    final short[][] featureWeights;
+    final short[] hiddenBiases;
+    // Widened to int and split by side, so the output loops each work on one
+    // element size and vectorize too
+    final int[] ownOutputWeights;
+    final int[] otherOutputWeights;
+    final int outputBias;
+
+    /**
+     * @param featureWeights {@link #INPUTS} rows of hidden-size weights
+     * @param outputWeights  hidden-size weights for the side to move, then as many for
+     *                       the other side
+     * @throws IllegalArgumentException if the sizes do not match, or one side's
+     *                                  output weights could sum past the int range
+     */
+    public NnueNetwork(int hidden, short[] featureWeights, short[] hiddenBiases, short[] outputWeights,
+                       int outputBias) {
+        if (hidden < 1 || hidden > MAX_HIDDEN) {
+            throw new IllegalArgumentException("hidden size must be between 1 and " + MAX_HIDDEN + ": " + hidden);
+        }
+        if (featureWeights.length != INPUTS * hidden || hiddenBiases.length != hidden
+                || outputWeights.length != 2 * hidden) {
+            throw new IllegalArgumentException("weight counts do not match hidden size " + hidden);
+        }
+        this.hidden = hidden;
+        this.featureWeights = new short[INPUTS][];
+        for (int input = 0; input < INPUTS; input++) {
+            this.featureWeights[input] = Arrays.copyOfRange(featureWeights, input * hidden, (input + 1) * hidden);
+        }
+        this.hiddenBiases = hiddenBiases.clone();
+        ownOutputWeights = widen(outputWeights, 0, hidden);
+        otherOutputWeights = widen(outputWeights, hidden, hidden);
+        this.outputBias = outputBias;
+    }
+
+    private static int[] widen(short[] weights, int offset, int length) {
+        int[] widened = new int[length];
+        long bound = 0;
+        for (int i = 0; i < length; i++) {
+            widened[i] = weights[offset + i];
+            bound += (long) Math.abs(widened[i]) * QA;
+        }
+        if (bound > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("output weights are too large to sum in an int");
+        }
+        return widened;
+    }
+
+    /**
+     * Reads a weights file from the local filesystem
+     *
+     * @throws IOException if the file cannot be read or is not a weights file
+     */
+    public static NnueNetwork load(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a network weights file: " + path);
+        }
+        int hidden = buffer.getInt();
+        if (hidden < 1 || hidden > MAX_HIDDEN
+                || buffer.remaining() != ((long) INPUTS * hidden + 3L * hidden) * Short.BYTES + Integer.BYTES) {
+            throw new IOException("Network weights file has the wrong size for hidden size " + hidden + ": " + path);
+        }
+        short[] featureWeights = new short[INPUTS * hidden];
+        short[] hiddenBiases = new short[hidden];
+        short[] outputWeights = new short[2 * hidden];
+        buffer.asShortBuffer().get(featureWeights).get(hiddenBiases).get(outputWeights);
+        buffer.position(buffer.position() + (featureWeights.length + hidden + outputWeights.length) * Short.BYTES);
+        try {
+            return new NnueNetwork(hidden, featureWeights, hiddenBiases, outputWeights, buffer.getInt());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unusable network weights in " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the network in the format {@link #load} reads
+     */
+    public void save(Path path) throws IOException {
+        int shorts = (INPUTS + 3) * hidden;
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + shorts * Short.BYTES + Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(hidden);
+        ShortBuffer weights = buffer.asShortBuffer();
+        for (short[] row : featureWeights) {
+            weights.put(row);
+        }
+        weights.put(hiddenBiases);
+        for (int weight : ownOutputWeights) {
+            weights.put((short) weight);
+        }
+        for (int weight : otherOutputWeights) {
+            weights.put((short) weight);
+        }
+        buffer.position(buffer.position() + shorts * Short.BYTES);
+        buffer.putInt(outputBias);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * A network of small random weights. It plays no better than chance, but costs
+     * the same to evaluate as a trained one of the same size, for benchmarks and
+     * tests.
+     */
+    public static NnueNetwork random(int hidden, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        short[] featureWeights = new short[INPUTS * hidden];
+        for (int i = 0; i < featureWeights.length; i++) {
+            // 32 pieces of at most 64 stay well inside the int16 range
+            featureWeights[i] = (short) random.nextInt(-64, 65);
+        }
+        short[] hiddenBiases = new short[hidden];
+        for (int i = 0; i < hidden; i++) {
+            hiddenBiases[i] = (short) random.nextInt(0, QA + 1);
+        }
+        short[] outputWeights = new short[2 * hidden];
+        for (int i = 0; i < outputWeights.length; i++) {
+            outputWeights[i] = (short) random.nextInt(-QB, QB + 1);
+        }
+        return new NnueNetwork(hidden, featureWeights, hiddenBiases, outputWeights, 0);
+    }
+
+    public int hiddenSize() {
+        return hidden;
+    }
+
+    /**
+     * @return the input a piece on a square feeds, as seen from white's side
+     */
+    static int whiteFeature(int square, int pieceIndex) {
+        return pieceIndex * 64 + square;
+    }
+
+    /**
+     * @return the input a piece on a square feeds, as seen from black's side: colors
+     * swapped and the board mirrored, so both sides share one set of weights
+     */
+    static int blackFeature(int square, int pieceIndex) {
+        return (pieceIndex < 6 ? pieceIndex + 6 : pieceIndex - 6) * 64 + (square ^ 56);
+    }
+}
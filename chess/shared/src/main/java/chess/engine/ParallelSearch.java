@@ -0,0 +1,117 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lazy SMP: several threads search the same position independently, each on its
+ * own copy of the board, and share one transposition table. Results one thread
+ * stores cut the work of the others, so the calling thread's search reaches a given
+ * depth sooner. Helper threads start from different root moves and depths so they
+ * do not all repeat the same work, and are stopped when the calling thread's search
+ * finishes; only its result is used.
+ * <p>
+ * One ParallelSearch runs one search at a time. Close it to release its threads.
+ */
+public final class ParallelSearch implements AutoCloseable {
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService pool;
+
+    /**
+     * @param evaluator shared by all threads, so it must be safe for concurrent use
+     * @param threads   total number of searching threads, including the caller's
+     */
+    public ParallelSearch(TranspositionTable table, Evaluator evaluator, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.table = table;
+        main = new Search(table, evaluator);
+        helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(table, evaluator);
+        }
+        if (helpers.length == 0) {
+            pool = null;
+        } else {
+            String prefix = "search-" + POOL_COUNT.incrementAndGet() + "-helper-";
+            AtomicInteger threadCount = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(helpers.length, runnable -> {
+                Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int threads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * @see Search#setListener
+     */
+    public void setListener(Consumer<SearchResult> listener) {
+        main.setListener(listener);
+    }
+
+    /**
+     * Searches the game's current position within the limits, which apply to the
+     * calling thread's search
+     *
+     * @return the calling thread's result, with the nodes of every thread counted
+     */
+    public SearchResult search(ChessGame game, Limits limits) {
+        ChessBoard board = game.getBoard().snapshot();
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        Limits helperLimits = Limits.depth(limits.maxDepth());
+        table.newSearch();
+        List<Future<SearchResult>> futures = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            ChessBoard helperBoard = board.snapshot();
+            int id = i + 1;
+            helper.clearStop();
+            futures.add(pool.submit(() -> helper.search(helperBoard, toMove, game.gameOver, helperLimits, id)));
+        }
+
+        main.clearStop();
+        SearchResult result = main.search(board, toMove, game.gameOver, limits, 0);
+        long nodes = result.nodes();
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("helper search failed", e.getCause());
+            }
+            nodes += helpers[i].nodes();
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.nanos());
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package chess.engine;
+
+import chess.*;
+import chess.pieceMoveCalculators.StaticExchange;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Iterative-deepening alpha-beta search for the team to move.
+ * <p>
+ * Each iteration is a principal variation search: the first move at a node is
+ * searched with the full window and the rest with a null window, re-searching only
+ * those that turn out better. Leaves are resolved by a quiescence search over
+ * captures and promotions, skipping captures the exchange evaluation says lose
+ * material. Moves are tried in the order: transposition table move, captures by
+ * most valuable victim and least valuable attacker, the two killer moves of the
+ * ply, then quiet moves by history score.
+ * <p>
+ * A Search holds per-search state and must only be used by one thread at a time;
+ * the transposition table may be shared.
+ */
+public final class Search {
+    public static final int MAX_DEPTH = 64;
+    public static final int INFINITY = 31000;
+    public static final int MATE = 30000;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final int MAX_PLY = 100;
+    private static final int MATE_BOUND = MATE - MAX_PLY;
+    private static final int CHECK_INTERVAL = 2047;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private static final int HASH_MOVE_ORDER = 1 << 30;
+    private static final int TACTICAL_ORDER = 1 << 24;
+    private static final int KILLER_ORDER = 1 << 22;
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] orderScores = new int[MAX_PLY][MoveList.CAPACITY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64];
+    private Consumer<SearchResult> listener;
+
+    private ChessBoard board;
+    private Limits limits;
+    private long startNanos;
+    private long nodes;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+    private int rootDepth;
+    private int rootBest;
+
+    public Search(TranspositionTable table, Evaluator evaluator) {
+        this.table = table;
+        this.evaluator = evaluator;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * @param listener called with the result so far after each completed iteration,
+     *                 for reporting depth and speed while the search runs
+     */
+    public void setListener(Consumer<SearchResult> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return True if the score means one side can force mate
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_BOUND;
+    }
+
+    /**
+     * Searches the game's current position on a copy of its board, so the game is
+     * not changed and may be read by other threads meanwhile
+     */
+    public SearchResult search(ChessGame game, Limits limits) {
+        stopRequested = false;
+        table.newSearch();
+        return search(game.getBoard().snapshot(), game.getTeamTurn(), game.gameOver, limits, 0);
+    }
+
+    /**
+     * Asks a running search, possibly on another thread, to stop and return the
+     * best move found so far
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * @param helper 0 for a normal search. Helper searches in a parallel search
+     *               start from a different root move, and odd-numbered ones skip
+     *               depth 1, so that threads sharing a table spread their work.
+     */
+    SearchResult search(ChessBoard board, ChessGame.TeamColor toMove, boolean gameOver, Limits limits, int helper) {
+        this.board = board;
+        this.limits = limits;
+        startNanos = System.nanoTime();
+        nodes = 0;
+        stopped = false;
+        rootBest = Move.NONE;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        for (int[][] colorHistory : history) {
+            for (int[] fromHistory : colorHistory) {
+                Arrays.fill(fromHistory, 0);
+            }
+        }
+
+        MoveList rootMoves = new MoveList();
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, toMove);
+        generator.generate(rootMoves);
+        if (gameOver || rootMoves.isEmpty()) {
+            int score = gameOver ? 0 : generator.inCheck() ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, System.nanoTime() - startNanos);
+        }
+        rootBest = rootMoves.get(helper % rootMoves.size());
+
+        // The budget is only checked from depth 2 on, so there is always a move. A
+        // stopped iteration keeps the previous score, but its best move is kept too
+        // since the root only switches moves after searching one fully.
+        int score = 0;
+        int completed = 0;
+        for (int depth = 1 + (helper & 1); depth <= limits.maxDepth(); depth++) {
+            rootDepth = depth;
+            int iterationScore = negamax(depth, 0, -INFINITY, INFINITY, toMove);
+            if (stopped) {
+                break;
+            }
+            score = iterationScore;
+            completed = depth;
+            if (listener != null) {
+                listener.accept(result(score, completed));
+            }
+            if (isMateScore(score) && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+        }
+        return result(score, completed);
+    }
+
+    private SearchResult result(int score, int depth) {
+        return new SearchResult(Move.toChessMove(rootBest), score, depth, nodes, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the number of positions visited by the current or last search
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, ChessGame.TeamColor toMove) {
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta, toMove);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        boolean pvNode = beta - alpha > 1;
+        long key = board.zobristKey(toMove);
+        // The root's best move so far is always tried first, whatever the table holds
+        int hashMove = ply == 0 ? rootBest : Move.NONE;
+        long entry = ply == 0 ? 0 : table.probe(key);
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, toMove);
+        boolean inCheck = generator.inCheck();
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.generate(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board, toMove);
+        }
+        if (inCheck && ply < 2 * rootDepth) {
+            depth++;
+        }
+
+        orderMoves(moves, ply, hashMove, toMove);
+        ChessGame.TeamColor opponent = ChessGame.opponent(toMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            int undo = board.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, opponent);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
+                }
+            }
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBest = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!isTactical(move)) {
+                            rememberQuiet(move, ply, depth, toMove);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int ply, int alpha, int beta, ChessGame.TeamColor toMove) {
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board, toMove);
+        }
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, toMove);
+        boolean inCheck = generator.inCheck();
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        int best;
+        if (inCheck) {
+            // Every evasion is searched, so a mate is seen as one
+            generator.generate(moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+            best = -INFINITY;
+        } else {
+            best = evaluator.evaluate(board, toMove);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+            generator.generateCaptures(moves);
+        }
+
+        orderMoves(moves, ply, Move.NONE, toMove);
+        ChessGame.TeamColor opponent = ChessGame.opponent(toMove);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            if (!inCheck && Move.promotion(move) < 0 && StaticExchange.evaluate(board, move) < 0) {
+                continue;
+            }
+            int undo = board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha, opponent);
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the budget every few thousand nodes
+     *
+     * @return True if the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if ((nodes & CHECK_INTERVAL) == 0 && rootDepth > 1) {
+            if (stopRequested
+                    || limits.maxNodes() > 0 && nodes >= limits.maxNodes()
+                    || limits.maxMillis() > 0 && System.nanoTime() - startNanos >= limits.maxMillis() * 1_000_000) {
+                stopped = true;
+            }
+        }
+        return stopped;
+    }
+
+    private void orderMoves(MoveList moves, int ply, int hashMove, ChessGame.TeamColor toMove) {
+        int[] scores = orderScores[ply];
+        int[][] colorHistory = history[toMove.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_ORDER;
+            } else if (isTactical(move)) {
+                int victim = board.pieceIndexAt(Move.to(move));
+                int promotion = Move.promotion(move);
+                int gained = (victim < 0 ? 0 : StaticExchange.value(ChessPiece.of(victim).getPieceType()))
+                        + (promotion < 0 ? 0 : StaticExchange.value(TYPES[promotion]));
+                int attacker = StaticExchange.value(ChessPiece.of(board.pieceIndexAt(Move.from(move))).getPieceType());
+                score = TACTICAL_ORDER + gained * 16 - attacker / 16;
+            } else if (move == killers[ply][0]) {
+                score = KILLER_ORDER;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_ORDER - 1;
+            } else {
+                score = colorHistory[Move.from(move)][Move.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best-scored move among those not yet tried into position i
+     */
+    private int nextMove(MoveList moves, int ply, int i) {
+        int[] scores = orderScores[ply];
+        int best = i;
+        for (int j = i + 1; j < moves.size(); j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = moves.get(best);
+        if (best != i) {
+            moves.set(best, moves.get(i));
+            moves.set(i, move);
+            int score = scores[best];
+            scores[best] = scores[i];
+            scores[i] = score;
+        }
+        return move;
+    }
+
+    private void rememberQuiet(int move, int ply, int depth, ChessGame.TeamColor toMove) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[][] colorHistory = history[toMove.ordinal()];
+        int[] fromHistory = colorHistory[Move.from(move)];
+        fromHistory[Move.to(move)] += depth * depth;
+        if (fromHistory[Move.to(move)] >= HISTORY_LIMIT) {
+            for (int[] scores : colorHistory) {
+                for (int to = 0; to < 64; to++) {
+                    scores[to] /= 2;
+                }
+            }
+        }
+    }
+
+    private static boolean isTactical(int move) {
+        return Move.isCapture(move) || Move.promotion(move) >= 0;
+    }
+
+    /**
+     * Mate scores are stored as distance from the stored node rather than from the
+     * root, so they stay right when the position is reached at another ply
+     */
+    private static int toTable(int score, int ply) {
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+    }
+}
@@ -0,0 +1,18 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of a search
+ *
+ * @param bestMove the move to play, or null if the team to move has none
+ * @param score    centipawns for the team to move; see {@link Search#isMateScore}
+ * @param depth    the deepest iteration that finished
+ * @param nodes    positions visited, including quiescence
+ * @param nanos    time taken
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long nanos) {
+    public double nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+    }
+}
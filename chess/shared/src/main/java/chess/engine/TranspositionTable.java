@@ -0,0 +1,188 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size hash table of search results that any number of threads can probe and
+ * store into without locking. The memory budget is set up front, since the table
+ * shares the JVM with the server.
+ * <p>
+ * Entries are pairs of longs: the entry's data and the position key XORed with that
+ * data. A probe only accepts an entry whose two halves agree, so a pair torn by two
+ * threads writing the same slot at once reads as a miss instead of a wrong result.
+ * Entry data packs the best move (bits 0-15, see {@link chess.Move}), the score
+ * (bits 16-31, signed), the remaining depth (bits 32-39), the bound (bits 40-41) and
+ * the search generation that stored it (bits 42-47).
+ * <p>
+ * A position may go in any of the four entries of its bucket, which together fill
+ * one 64-byte cache line. When all four are taken, the entry replaced is the one
+ * left by the oldest search, and among equally old ones the shallowest.
+ */
+public final class TranspositionTable {
+    public static final int UPPER = 1;
+    public static final int LOWER = 2;
+    public static final int EXACT = 3;
+
+    /**
+     * Usage counters at the time they were read
+     *
+     * @param fillPermille entries out of a thousand sampled that hold a result from
+     *                     the current search
+     * @param megabytes    memory the table allocated
+     */
+    public record Stats(long probes, long hits, long stores, int fillPermille, int megabytes) {
+        public double hitRate() {
+            return probes == 0 ? 0 : (double) hits / probes;
+        }
+    }
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = BUCKET_ENTRIES * 2;
+    private static final int GENERATIONS = 64;
+    private static final int FILL_SAMPLE = 1000;
+    // The most a long[] can hold in buckets of a power of two
+    private static final int MAX_MEGABYTES = 8192;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final int megabytes;
+    private volatile int generation;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * @param megabytes most memory to use, from 1 to 8192 MB. The number of buckets is
+     *                  rounded down to a power of two, so a size that is not a power of
+     *                  two allocates less; {@link Stats#megabytes()} reports what was
+     *                  allocated.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_MEGABYTES + " MB: " + megabytes);
+        }
+        long buckets = Long.highestOneBit((long) megabytes * (1 << 20) / (ENTRY_BYTES * BUCKET_ENTRIES));
+        table = new long[(int) buckets * BUCKET_LONGS];
+        bucketMask = (int) buckets - 1;
+        this.megabytes = (int) ((long) table.length * Long.BYTES >> 20);
+    }
+
+    /**
+     * Starts a new search generation. Entries from earlier searches stay usable but
+     * are the first to be replaced.
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    /**
+     * @return the data stored for the position, or 0 if there is none
+     */
+    public long probe(long key) {
+        probes.increment();
+        int bucket = bucket(key);
+        for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += 2) {
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == key && data != 0) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a result. An entry for the same position is kept instead if it came
+     * from this search and is deeper, unless the new result is exact.
+     *
+     * @param score score relative to the position, with mate scores already adjusted
+     *              by the caller to count from this node
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int currentGeneration = generation;
+        int bucket = bucket(key);
+        int victim = bucket;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += 2) {
+            long existing = table[slot + 1];
+            if ((table[slot] ^ existing) == key) {
+                if (existing != 0 && bound != EXACT && generation(existing) == currentGeneration
+                        && depth(existing) > depth) {
+                    return;
+                }
+                victim = slot;
+                break;
+            }
+            // Empty entries are worth least, then stale ones, then shallow ones
+            int age = (currentGeneration - generation(existing) + GENERATIONS) % GENERATIONS;
+            int worth = existing == 0 ? Integer.MIN_VALUE : depth(existing) - 8 * age;
+            if (worth < victimWorth) {
+                victimWorth = worth;
+                victim = slot;
+            }
+        }
+        long data = (move & 0xFFFFL) | (score & 0xFFFFL) << 16 | (long) depth << 32 | (long) bound << 40
+                | (long) currentGeneration << 42;
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+        stores.increment();
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * Clears the counters without touching the stored entries
+     */
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    public Stats stats() {
+        int sampled = Math.min(FILL_SAMPLE, table.length / 2);
+        int current = 0;
+        for (int slot = 0; slot < sampled * 2; slot += 2) {
+            long data = table[slot + 1];
+            if (data != 0 && generation(data) == generation) {
+                current++;
+            }
+        }
+        return new Stats(probes.sum(), hits.sum(), stores.sum(), current * 1000 / sampled, megabytes);
+    }
+
+    /**
+     * @return number of entries the table holds when full
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 42) & (GENERATIONS - 1);
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * BUCKET_LONGS;
+    }
+}
@@ -10,4 +10,8 @@ public class BishopMoveCalculator extends PieceMoveCalculator {
     public static ArrayList<ChessMove> moves(ChessBoard board, ChessPosition position) {
         return diagonal(board, position);
     }
+
+    public static long targets(ChessBoard board, int square) {
+        return MagicBitboards.bishopAttacks(square, board.occupancy()) & ~own(board, square);
+    }
 }
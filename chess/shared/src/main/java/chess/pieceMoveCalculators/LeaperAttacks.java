@@ -0,0 +1,70 @@
+package chess.pieceMoveCalculators;
+
+import chess.ChessGame;
+
+/**
+ * Precomputed per-square attack masks for knights, kings and pawns, indexed by
+ * square 0 (a1) through 63 (h8).
+ */
+public final class LeaperAttacks {
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+    private static final int[][] WHITE_PAWN_STEPS = {{1, -1}, {1, 1}};
+    private static final int[][] BLACK_PAWN_STEPS = {{-1, -1}, {-1, 1}};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = steps(square, KNIGHT_STEPS);
+            KING[square] = steps(square, KING_STEPS);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = steps(square, WHITE_PAWN_STEPS);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = steps(square, BLACK_PAWN_STEPS);
+        }
+    }
+
+    private LeaperAttacks() {}
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return mask of the two diagonal squares a pawn of the given color captures on
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return mask of the squares a pawn of the given color can advance to, including
+     * the double step from its starting row when both squares are empty
+     */
+    public static long pawnPushes(ChessGame.TeamColor color, int square, long occupancy) {
+        long empty = ~occupancy;
+        if (color == ChessGame.TeamColor.WHITE) {
+            long single = (1L << square << 8) & empty;
+            return (square >>> 3) == 1 ? single | ((single << 8) & empty) : single;
+        }
+        long single = (1L << square >>> 8) & empty;
+        return (square >>> 3) == 6 ? single | ((single >>> 8) & empty) : single;
+    }
+
+    private static long steps(int square, int[][] steps) {
+        long mask = 0;
+        for (int[] step : steps) {
+            int row = (square >>> 3) + step[0];
+            int col = (square & 7) + step[1];
+            if (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                mask |= 1L << (row * 8 + col);
+            }
+        }
+        return mask;
+    }
+}
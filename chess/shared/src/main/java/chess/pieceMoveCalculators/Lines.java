@@ -0,0 +1,45 @@
+package chess.pieceMoveCalculators;
+
+/**
+ * Precomputed masks for pairs of squares that share a rank, file or diagonal.
+ */
+public final class Lines {
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long bitA = 1L << a;
+                long bitB = 1L << b;
+                if (a == b) {
+                    continue;
+                }
+                if ((MagicBitboards.rookAttacks(a, 0) & bitB) != 0) {
+                    BETWEEN[a][b] = MagicBitboards.rookAttacks(a, bitB) & MagicBitboards.rookAttacks(b, bitA);
+                    LINE[a][b] = MagicBitboards.rookAttacks(a, 0) & MagicBitboards.rookAttacks(b, 0) | bitA | bitB;
+                } else if ((MagicBitboards.bishopAttacks(a, 0) & bitB) != 0) {
+                    BETWEEN[a][b] = MagicBitboards.bishopAttacks(a, bitB) & MagicBitboards.bishopAttacks(b, bitA);
+                    LINE[a][b] = MagicBitboards.bishopAttacks(a, 0) & MagicBitboards.bishopAttacks(b, 0) | bitA | bitB;
+                }
+            }
+        }
+    }
+
+    private Lines() {}
+
+    /**
+     * @return mask of the squares strictly between a and b, or 0 if they are not aligned
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return mask of the whole rank, file or diagonal through a and b, or 0 if they
+     * are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+}
@@ -1,98 +1,102 @@
 package chess.pieceMoveCalculators;
 
-import chess.ChessBoard;
-import chess.ChessGame;
-import chess.ChessMove;
-import chess.ChessPosition;
+import chess.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 
 public class PieceMoveCalculator {
-    public static ArrayList<ChessMove> diagonal(ChessBoard board, ChessPosition piecePosition) {
-        ArrayList<ChessMove> moves = new ArrayList<>();
-        ChessPosition currentPosition;
+    private static final long PROMOTION_ROWS = 0xFF000000000000FFL;
 
-        currentPosition = piecePosition.tr();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.tr();
-        }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
-        currentPosition = piecePosition.br();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.br();
-        }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
-        currentPosition = piecePosition.bl();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.bl();
-        }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
-        currentPosition = piecePosition.tl();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.tl();
-        }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
+    public static ArrayList<ChessMove> diagonal(ChessBoard board, ChessPosition piecePosition) {
+        int square = ChessBoard.square(piecePosition);
+        return movesTo(board, piecePosition, MagicBitboards.bishopAttacks(square, board.occupancy()) & ~own(board, square));
+    }
+    public static ArrayList<ChessMove> vertical(ChessBoard board, ChessPosition piecePosition) {
+        int square = ChessBoard.square(piecePosition);
+        return movesTo(board, piecePosition, MagicBitboards.rookAttacks(square, board.occupancy()) & ~own(board, square));
+    }
 
+    public static ArrayList<ChessMove> movesTo(ChessBoard board, ChessPosition piecePosition, long targets) {
+        ArrayList<ChessMove> moves = new ArrayList<>(Long.bitCount(targets));
+        addMoves(board, ChessBoard.square(piecePosition), targets, moves);
         return moves;
     }
-    public static ArrayList<ChessMove> vertical(ChessBoard board, ChessPosition piecePosition) {
-        ArrayList<ChessMove> moves = new ArrayList<>();
-        ChessPosition currentPosition;
 
-        currentPosition = piecePosition.t();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.t();
+    /**
+     * Adds a move from the square to each target square. Pawn moves onto the first or
+     * last row are expanded into the four promotions.
+     */
+    public static void addMoves(ChessBoard board, int square, long targets, Collection<ChessMove> moves) {
+        ChessPosition start = ChessBoard.position(square);
+        long promotions = isPawn(board, square) ? targets & PROMOTION_ROWS : 0;
+        for (long quiet = targets & ~promotions; quiet != 0; quiet &= quiet - 1) {
+            moves.add(new ChessMove(start, ChessBoard.position(Long.numberOfTrailingZeros(quiet)), null));
         }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
-        currentPosition = piecePosition.r();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.r();
+        for (; promotions != 0; promotions &= promotions - 1) {
+            ChessPosition end = ChessBoard.position(Long.numberOfTrailingZeros(promotions));
+            moves.add(new ChessMove(start, end, ChessPiece.PieceType.QUEEN));
+            moves.add(new ChessMove(start, end, ChessPiece.PieceType.BISHOP));
+            moves.add(new ChessMove(start, end, ChessPiece.PieceType.ROOK));
+            moves.add(new ChessMove(start, end, ChessPiece.PieceType.KNIGHT));
         }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
-        currentPosition = piecePosition.b();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.b();
+    }
+
+    /**
+     * Packed-move counterpart of {@link #addMoves(ChessBoard, int, long, Collection)}
+     *
+     * @return False if the sink asked to stop
+     */
+    public static boolean addMoves(ChessBoard board, int square, long targets, MoveSink moves) {
+        long promotions = isPawn(board, square) ? targets & PROMOTION_ROWS : 0;
+        long occupancy = board.occupancy();
+        for (long quiet = targets & ~promotions; quiet != 0; quiet &= quiet - 1) {
+            int to = Long.numberOfTrailingZeros(quiet);
+            if (!moves.accept(Move.encode(square, to, -1, (occupancy & 1L << to) != 0 ? Move.CAPTURE : 0))) {
+                return false;
+            }
         }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
-        currentPosition = piecePosition.l();
-        while (canMove(board, currentPosition)) {
-            moves.add(new ChessMove(piecePosition, currentPosition, null));
-            currentPosition = currentPosition.l();
+        for (; promotions != 0; promotions &= promotions - 1) {
+            int to = Long.numberOfTrailingZeros(promotions);
+            int flags = (occupancy & 1L << to) != 0 ? Move.CAPTURE : 0;
+            if (!moves.accept(Move.encode(square, to, ChessPiece.PieceType.QUEEN.ordinal(), flags))
+                    || !moves.accept(Move.encode(square, to, ChessPiece.PieceType.BISHOP.ordinal(), flags))
+                    || !moves.accept(Move.encode(square, to, ChessPiece.PieceType.ROOK.ordinal(), flags))
+                    || !moves.accept(Move.encode(square, to, ChessPiece.PieceType.KNIGHT.ordinal(), flags))) {
+                return false;
+            }
         }
-        moves.addAll(capture(board, piecePosition, currentPosition, board.getPiece(piecePosition).getTeamColor()));
+        return true;
+    }
 
-        return moves;
+    /**
+     * Narrows a piece's targets to the moves that change material: captures, and
+     * every move of a pawn onto the first or last row. Generating these before
+     * {@link #quietTargets} lets tactical code look at them first.
+     */
+    public static long tacticalTargets(ChessBoard board, int square, long targets) {
+        long enemies = board.occupancy() & ~own(board, square);
+        return targets & (isPawn(board, square) ? enemies | PROMOTION_ROWS : enemies);
     }
 
-    public static boolean canMove(ChessBoard board, ChessPosition position) {
-        return position.getColumn() > 0 && position.getColumn() < 9 && position.getRow() > 0 && position.getRow() < 9 &&
-                board.getPiece(position) == null;
+    /**
+     * @return the targets left out of {@link #tacticalTargets}
+     */
+    public static long quietTargets(ChessBoard board, int square, long targets) {
+        return targets & ~tacticalTargets(board, square, targets);
     }
-    public static ArrayList<ChessMove> capture(ChessBoard board, ChessPosition startPosition, ChessPosition endPosition,
-                                               ChessGame.TeamColor color) {
-        ArrayList<ChessMove> moves = new ArrayList<>();
-        if (endPosition.getColumn() > 0 && endPosition.getColumn() < 9 && endPosition.getRow() > 0 &&
-                endPosition.getRow() < 9 && board.getPiece(endPosition) != null &&
-                board.getPiece(endPosition).getTeamColor() != color) {
-            moves.add(new ChessMove(startPosition, endPosition, null));
-        }
-        return moves;
+
+    private static boolean isPawn(ChessBoard board, int square) {
+        long pawns = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN)
+                | board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        return (pawns & 1L << square) != 0;
     }
 
-    public static void checkMoveList(ChessBoard board, ChessPosition position, ArrayList<ChessPosition> possiblePositions, ArrayList<ChessMove> moves) {
-        for (ChessPosition p : possiblePositions) {
-            if (canMove(board, p)) {
-                moves.add(new ChessMove(position, p, null));
-            } else {
-                moves.addAll(capture(board, position, p, board.getPiece(position).getTeamColor()));
-            }
-        }
+    /**
+     * @return mask of the squares held by the team of the piece on the square
+     */
+    public static long own(ChessBoard board, int square) {
+        long white = board.occupancy(ChessGame.TeamColor.WHITE);
+        return (white & 1L << square) != 0 ? white : board.occupancy(ChessGame.TeamColor.BLACK);
     }
 }
@@ -8,9 +8,10 @@ import java.util.ArrayList;
 
 public class QueenMoveCalculator extends PieceMoveCalculator {
     public static ArrayList<ChessMove> moves(ChessBoard board, ChessPosition position) {
-        ArrayList<ChessMove> moves = vertical(board, position);
-        moves.addAll(diagonal(board, position));
-        return moves;
+        return movesTo(board, position, targets(board, ChessBoard.square(position)));
     }
 
+    public static long targets(ChessBoard board, int square) {
+        return MagicBitboards.queenAttacks(square, board.occupancy()) & ~own(board, square);
+    }
 }
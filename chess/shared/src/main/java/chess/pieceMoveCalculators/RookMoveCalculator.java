@@ -10,4 +10,8 @@ public class RookMoveCalculator extends PieceMoveCalculator {
     public static ArrayList<ChessMove> moves(ChessBoard board, ChessPosition position) {
         return vertical(board, position);
     }
+
+    public static long targets(ChessBoard board, int square) {
+        return MagicBitboards.rookAttacks(square, board.occupancy()) & ~own(board, square);
+    }
 }
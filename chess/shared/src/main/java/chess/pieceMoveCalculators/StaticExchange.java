@@ -0,0 +1,100 @@
+package chess.pieceMoveCalculators;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+
+/**
+ * Static exchange evaluation: the material a capture wins or loses once both
+ * sides have made every recapture on the square that pays off, worked out from
+ * attack masks without playing any moves.
+ * <p>
+ * Each side recaptures with its least valuable attacker, and sliding pieces behind
+ * a piece that has captured join in as it leaves. Either side may stop when going
+ * on would lose material. Pins are ignored, as is usual for this estimate.
+ */
+public final class StaticExchange {
+    // Centipawns, indexed by PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] VALUES = {10000, 900, 330, 320, 500, 100};
+    private static final ChessPiece.PieceType[] CHEAPEST_FIRST = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+    // More captures than there are pieces cannot happen on one square
+    private static final int MAX_EXCHANGES = 33;
+
+    private StaticExchange() {}
+
+    /**
+     * @return the value in centipawns of a piece type, as used by the exchange
+     * evaluation
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * @param board the position before the move
+     * @param move  packed move (see {@link Move}) starting on an occupied square
+     * @return the material the moving side gains in centipawns, negative if the
+     * exchange loses material; 0 for a quiet move onto a safe square
+     */
+    public static int evaluate(ChessBoard board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moverIndex = board.pieceIndexAt(from);
+        int capturedIndex = board.pieceIndexAt(to);
+
+        int[] gain = new int[MAX_EXCHANGES];
+        gain[0] = capturedIndex < 0 ? 0 : VALUES[capturedIndex % 6];
+        int onSquare = moverIndex % 6;
+        int promotion = Move.promotion(move);
+        if (promotion >= 0) {
+            gain[0] += VALUES[promotion] - VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+            onSquare = promotion;
+        }
+
+        ChessGame.TeamColor side = moverIndex < 6 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long occupancy = board.occupancy() & ~(1L << from);
+        int depth = 0;
+        while (true) {
+            long attackers = attackers(board, to, occupancy);
+            long ours = attackers & board.occupancy(side);
+            if (ours == 0) {
+                break;
+            }
+            long attacker = 0;
+            ChessPiece.PieceType attackerType = null;
+            for (ChessPiece.PieceType type : CHEAPEST_FIRST) {
+                long candidates = ours & board.pieces(side, type);
+                if (candidates != 0) {
+                    attacker = candidates & -candidates;
+                    attackerType = type;
+                    break;
+                }
+            }
+            // A king may only take last, when nothing can take it back
+            if (attackerType == ChessPiece.PieceType.KING && (attackers & ~ours) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = VALUES[onSquare] - gain[depth - 1];
+            occupancy &= ~attacker;
+            onSquare = attackerType.ordinal();
+            side = ChessGame.opponent(side);
+        }
+        for (; depth > 0; depth--) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * @return pieces of both teams still on the board that attack the square
+     */
+    private static long attackers(ChessBoard board, int square, long occupancy) {
+        return (board.attackersTo(square, ChessGame.TeamColor.WHITE, occupancy)
+                | board.attackersTo(square, ChessGame.TeamColor.BLACK, occupancy)) & occupancy;
+    }
+}
@@ -0,0 +1,28 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+public class BoardCopyTests {
+
+    @Test
+    @DisplayName("Changes to a copy or its source stay separate")
+    public void copiesAreIndependent() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard snapshot = board.snapshot();
+        ChessBoard copy = new ChessBoard(board);
+
+        board.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        copy.addPiece(ChessPosition.of(1, 1), null);
+
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        Assertions.assertEquals(start, snapshot);
+        Assertions.assertNotEquals(start, board);
+        Assertions.assertNotEquals(start, copy);
+        Assertions.assertNotNull(board.getPiece(ChessPosition.of(1, 1)));
+        Assertions.assertNull(copy.getPiece(ChessPosition.of(4, 5)));
+        Assertions.assertNotNull(snapshot.getPiece(ChessPosition.of(2, 5)));
+    }
+}
@@ -0,0 +1,37 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BoardTraversalTests {
+
+    @Test
+    @DisplayName("forEachOccupied matches the iterator")
+    public void matchesIterator() {
+        ChessBoard board = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10")
+                .getBoard();
+        List<String> expected = new ArrayList<>();
+        List<String> expectedBlack = new ArrayList<>();
+        for (ChessPosition position : board) {
+            ChessPiece piece = board.getPiece(position);
+            if (piece != null) {
+                expected.add(position + " " + piece);
+                if (piece.getTeamColor() == ChessGame.TeamColor.BLACK) {
+                    expectedBlack.add(position + " " + piece);
+                }
+            }
+        }
+
+        List<String> visited = new ArrayList<>();
+        board.forEachOccupied((square, piece) -> visited.add(ChessBoard.position(square) + " " + piece));
+        Assertions.assertEquals(expected, visited);
+
+        List<String> visitedBlack = new ArrayList<>();
+        board.forEachOccupied(ChessGame.TeamColor.BLACK,
+                (square, piece) -> visitedBlack.add(ChessBoard.position(square) + " " + piece));
+        Assertions.assertEquals(expectedBlack, visitedBlack);
+    }
+}
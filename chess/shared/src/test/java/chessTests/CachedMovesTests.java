@@ -0,0 +1,69 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Set;
+
+public class CachedMovesTests {
+    private static final ChessPosition KNIGHT = ChessPosition.of(1, 2);
+    private static final ChessMove KNIGHT_TO_C3 = new ChessMove(KNIGHT, ChessPosition.of(3, 3), null);
+    private static final ChessMove KNIGHT_TO_A3 = new ChessMove(KNIGHT, ChessPosition.of(3, 1), null);
+
+    @Test
+    @DisplayName("Moves cached before a move are not used after it")
+    public void droppedAfterMakeMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(2, game.validMoves(KNIGHT).size());
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertTrue(game.validMoves(KNIGHT).isEmpty());
+        Assertions.assertFalse(game.isLegal(KNIGHT_TO_C3));
+        Assertions.assertTrue(game.isLegal(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null)));
+    }
+
+    @Test
+    @DisplayName("Moves cached before setBoard are not used after it")
+    public void droppedAfterSetBoard() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(2, game.validMoves(KNIGHT).size());
+
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(KNIGHT, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        game.setBoard(board);
+        Assertions.assertEquals(3, game.validMoves(KNIGHT).size());
+        Assertions.assertTrue(game.isLegal(new ChessMove(KNIGHT, ChessPosition.of(2, 4), null)));
+    }
+
+    @Test
+    @DisplayName("Moves cached before setTeamTurn are not used after it")
+    public void droppedAfterSetTeamTurn() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(2, game.validMoves(KNIGHT).size());
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertFalse(game.isLegal(KNIGHT_TO_C3));
+        Assertions.assertTrue(game.validMoves(KNIGHT).isEmpty());
+        Assertions.assertEquals(2, game.validMoves(ChessPosition.of(8, 2)).size());
+    }
+
+    @Test
+    @DisplayName("Moves cached before the board is edited directly are not used after it")
+    public void droppedAfterBoardEdit() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(Set.of(KNIGHT_TO_C3, KNIGHT_TO_A3), Set.copyOf(game.validMoves(KNIGHT)));
+
+        // Blocks one of the knight's squares without going through the game
+        game.getBoard().addPiece(ChessPosition.of(3, 3),
+                ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(Set.of(KNIGHT_TO_A3), Set.copyOf(game.validMoves(KNIGHT)));
+        Assertions.assertFalse(game.isLegal(KNIGHT_TO_C3));
+
+        // Opens a square the knight could not reach before
+        game.getBoard().removePiece(ChessPosition.of(2, 4));
+        Assertions.assertTrue(game.isLegal(new ChessMove(KNIGHT, ChessPosition.of(2, 4), null)));
+        Assertions.assertEquals(2, game.validMoves(KNIGHT).size());
+    }
+}
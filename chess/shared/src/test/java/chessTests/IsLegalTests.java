@@ -0,0 +1,34 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+public class IsLegalTests {
+
+    @Test
+    @DisplayName("Pinned pieces and the king's safety")
+    public void pinsAndChecks() {
+        // The white knight on e2 is pinned by the rook on e8
+        ChessGame game = Fen.parse("4r1k1/8/8/8/8/8/4N3/4K3 w - - 0 1");
+        Assertions.assertFalse(game.isLegal(move(2, 5, 4, 6, null)));
+        Assertions.assertTrue(game.isLegal(move(1, 5, 1, 6, null)));
+        Assertions.assertFalse(game.isLegal(move(1, 5, 3, 5, null)), "not a king move");
+        Assertions.assertFalse(game.isLegal(move(8, 7, 7, 7, null)), "not white's piece");
+        Assertions.assertFalse(game.isLegal(move(4, 4, 5, 4, null)), "empty square");
+        Assertions.assertFalse(game.isLegal(move(0, 5, 1, 5, null)), "off the board");
+    }
+
+    @Test
+    @DisplayName("Promotions must name a piece")
+    public void promotions() {
+        ChessGame game = Fen.parse("k7/4P3/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertTrue(game.isLegal(move(7, 5, 8, 5, ChessPiece.PieceType.KNIGHT)));
+        Assertions.assertFalse(game.isLegal(move(7, 5, 8, 5, null)));
+        Assertions.assertFalse(game.isLegal(move(7, 5, 8, 5, ChessPiece.PieceType.KING)));
+        Assertions.assertFalse(game.isLegal(move(1, 5, 2, 5, ChessPiece.PieceType.QUEEN)));
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), promotion);
+    }
+}
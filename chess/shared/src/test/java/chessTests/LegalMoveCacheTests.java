@@ -0,0 +1,66 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    @DisplayName("Games share cached moves")
+    public void sharedBetweenGames() throws InvalidMoveException {
+        LegalMoveCache cache = new LegalMoveCache(64);
+        ChessGame first = new ChessGame();
+        first.setMoveCache(cache);
+        ChessPosition knight = ChessPosition.of(1, 2);
+        var expected = new HashSet<>(first.validMoves(knight));
+
+        ChessGame second = new ChessGame();
+        second.setMoveCache(cache);
+        Assertions.assertEquals(expected, new HashSet<>(second.validMoves(knight)));
+        Assertions.assertEquals(1, cache.stats().misses());
+        Assertions.assertEquals(1, cache.stats().hits());
+
+        second.makeMove(new ChessMove(knight, ChessPosition.of(3, 3), null));
+        Assertions.assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    @DisplayName("A game loaded afresh checks moves against the shared cache")
+    public void loadedGameUsesSharedCache() throws InvalidMoveException {
+        LegalMoveCache cache = new LegalMoveCache(64);
+        ChessGame game = new ChessGame();
+        game.setMoveCache(cache);
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        long misses = cache.stats().misses();
+        long hits = cache.stats().hits();
+
+        Gson gson = new Gson();
+        ChessGame loaded = gson.fromJson(gson.toJson(game), ChessGame.class);
+        loaded.setMoveCache(cache);
+        Assertions.assertFalse(loaded.isLegal(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(4, 5), null)));
+        loaded.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        Assertions.assertEquals(hits + 1, cache.stats().hits());
+        // Only the position after black's move had to be generated
+        Assertions.assertEquals(misses + 1, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Colliding positions evict each other")
+    public void eviction() {
+        LegalMoveCache cache = new LegalMoveCache(1);
+        cache.put(1, 0, new int[]{1});
+        cache.put(2, 0, new int[]{2});
+        Assertions.assertNull(cache.get(1, 0));
+        Assertions.assertArrayEquals(new int[]{2}, cache.get(2, 0));
+        Assertions.assertNull(cache.get(2, 1), "occupancy mismatch must miss");
+
+        LegalMoveCache.Stats stats = cache.stats();
+        Assertions.assertEquals(1, stats.evictions());
+        Assertions.assertEquals(1, stats.size());
+        Assertions.assertEquals(1, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+    }
+}
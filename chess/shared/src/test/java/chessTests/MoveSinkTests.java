@@ -0,0 +1,41 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+public class MoveSinkTests {
+
+    @Test
+    @DisplayName("Counting through a sink matches validMoves")
+    public void countMatches() {
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        int[] count = {0};
+        Assertions.assertTrue(game.forEachLegalMove(move -> {
+            count[0]++;
+            return true;
+        }));
+        Assertions.assertEquals(46, count[0]);
+
+        int total = 0;
+        for (long own = game.getBoard().occupancy(game.getTeamTurn()); own != 0; own &= own - 1) {
+            total += game.validMoves(ChessBoard.position(Long.numberOfTrailingZeros(own))).size();
+        }
+        Assertions.assertEquals(46, total);
+    }
+
+    @Test
+    @DisplayName("A sink can stop generation")
+    public void earlyStop() {
+        ChessGame game = new ChessGame();
+        int[] seen = {0};
+        Assertions.assertFalse(game.forEachLegalMove(move -> ++seen[0] < 3));
+        Assertions.assertEquals(3, seen[0]);
+
+        int[] knightMoves = {0};
+        ChessPiece.pieceMoves(game.getBoard(), ChessBoard.square(ChessPosition.of(1, 2)), move -> {
+            knightMoves[0]++;
+            return true;
+        });
+        Assertions.assertEquals(2, knightMoves[0]);
+    }
+}
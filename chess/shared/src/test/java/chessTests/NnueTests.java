@@ -0,0 +1,108 @@
+package chessTests;
+
+import chess.*;
+import chess.engine.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class NnueTests {
+    private static final NnueNetwork NETWORK = NnueNetwork.random(32, 25);
+
+    @Test
+    @DisplayName("Evaluations kept through moves match a freshly filled accumulator")
+    public void incrementalMatchesRefresh() {
+        NnueEvaluator evaluator = new NnueEvaluator(NETWORK);
+        Random random = new Random(25);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessGame.TeamColor toMove = ChessGame.TeamColor.WHITE;
+        evaluator.evaluate(board, toMove);
+        ChessBoard.PieceListener attached = board.pieceListener();
+        for (int ply = 0; ply < 150; ply++) {
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(board, toMove).generate(moves);
+            if (moves.size() == 0) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            int undo = board.makeMove(move);
+            ChessGame.TeamColor next = ChessGame.opponent(toMove);
+            int score = evaluator.evaluate(board, next);
+            Assertions.assertSame(attached, board.pieceListener());
+            Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(board.snapshot(), next), score);
+
+            // Taking a move back restores the score too
+            board.unmakeMove(move, undo);
+            int before = evaluator.evaluate(board, toMove);
+            Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(board.snapshot(), toMove), before);
+            board.makeMove(move);
+            toMove = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Mirrored positions score the same for the side to move")
+    public void symmetry() {
+        NnueEvaluator evaluator = new NnueEvaluator(NETWORK);
+        ChessBoard white = Fen.parse("4k3/8/8/8/8/8/3P4/2N1K3 w - - 0 1").getBoard();
+        ChessBoard black = Fen.parse("2n1k3/3p4/8/8/8/8/8/4K3 b - - 0 1").getBoard();
+        Assertions.assertEquals(evaluator.evaluate(white, ChessGame.TeamColor.WHITE),
+                evaluator.evaluate(black, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Weights survive a save and load")
+    public void saveAndLoad(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("network.bin");
+        NETWORK.save(file);
+        NnueNetwork loaded = NnueNetwork.load(file);
+        Assertions.assertEquals(NETWORK.hiddenSize(), loaded.hiddenSize());
+
+        ChessBoard board = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10")
+                .getBoard();
+        Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(board.snapshot(), ChessGame.TeamColor.WHITE),
+                NnueEvaluator.loadOrClassical(file).evaluate(board.snapshot(), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("A missing or unreadable weights file falls back to the classical evaluator")
+    public void fallback(@TempDir Path directory) throws IOException {
+        Evaluator fallback = new MaterialEvaluator();
+        Assertions.assertSame(fallback, NnueEvaluator.loadOrFallback(directory.resolve("missing.bin"), fallback));
+        Assertions.assertSame(fallback, NnueEvaluator.loadOrFallback(null, fallback));
+
+        Path garbage = directory.resolve("garbage.bin");
+        Files.write(garbage, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        Assertions.assertSame(fallback, NnueEvaluator.loadOrFallback(garbage, fallback));
+        Assertions.assertThrows(IOException.class, () -> NnueNetwork.load(garbage));
+
+        // A truncated file is rejected rather than read short
+        Path truncated = directory.resolve("truncated.bin");
+        NETWORK.save(truncated);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 2));
+        Assertions.assertThrows(IOException.class, () -> NnueNetwork.load(truncated));
+
+        // Output weights whose sum could overflow are refused up front
+        short[] outputWeights = new short[2 * 512];
+        Arrays.fill(outputWeights, Short.MAX_VALUE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new NnueNetwork(512,
+                new short[NnueNetwork.INPUTS * 512], new short[512], outputWeights, 0));
+    }
+
+    @Test
+    @DisplayName("The search runs on the network evaluation")
+    public void search() {
+        Search search = new Search(new TranspositionTable(1), new NnueEvaluator(NETWORK));
+        ChessGame game = new ChessGame();
+        SearchResult result = search.search(game, Limits.depth(3));
+        Assertions.assertTrue(game.isLegal(result.bestMove()));
+        Assertions.assertNull(game.getBoard().pieceListener());
+    }
+}
@@ -0,0 +1,46 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Reference positions match published counts")
+    public void referenceCounts() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = Fen.parse(reference.fen());
+            for (int depth = 1; depth <= Math.min(3, reference.counts().length); depth++) {
+                Assertions.assertEquals(reference.counts()[depth - 1],
+                        Perft.count(game.getBoard(), game.getTeamTurn(), depth),
+                        reference.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel count matches sequential count")
+    public void parallelCount() {
+        ChessGame game = Fen.parse(Perft.REFERENCES.get(0).fen());
+        long sequential = Perft.count(game.getBoard(), game.getTeamTurn(), 4);
+        long parallel = Perft.countParallel(game.getBoard(), game.getTeamTurn(), 4, ForkJoinPool.commonPool());
+        Assertions.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("Divide sums to the full count")
+    public void divideSums() {
+        ChessGame game = Fen.parse(Perft.REFERENCES.get(1).fen());
+        long total = Perft.divide(game.getBoard(), game.getTeamTurn(), 3).values().stream().mapToLong(Long::longValue).sum();
+        Assertions.assertEquals(9483, total);
+    }
+
+    @Test
+    @DisplayName("FEN round trip")
+    public void fenRoundTrip() {
+        String fen = Perft.REFERENCES.get(3).fen().replace(" 0 10", " 0 1");
+        Assertions.assertEquals(fen, Fen.toFen(Fen.parse(fen)));
+    }
+}
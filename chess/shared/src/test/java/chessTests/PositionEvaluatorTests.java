@@ -0,0 +1,66 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+public class PositionEvaluatorTests {
+
+    @Test
+    @DisplayName("Scores kept through moves match a board built from scratch")
+    public void incrementalMatchesRebuilt() {
+        Random random = new Random(24);
+        for (int game = 0; game < 20; game++) {
+            ChessBoard board = new ChessBoard();
+            board.resetBoard();
+            ChessGame.TeamColor toMove = ChessGame.TeamColor.WHITE;
+            for (int ply = 0; ply < 120; ply++) {
+                MoveList moves = new MoveList();
+                new LegalMoveGenerator(board, toMove).generate(moves);
+                if (moves.size() == 0) {
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                toMove = ChessGame.opponent(toMove);
+
+                ChessBoard rebuilt = new ChessBoard();
+                board.forEachOccupied((square, piece) -> rebuilt.addPiece(ChessBoard.position(square), piece));
+                Assertions.assertEquals(rebuilt.midgameScore(), board.midgameScore());
+                Assertions.assertEquals(rebuilt.endgameScore(), board.endgameScore());
+                Assertions.assertEquals(rebuilt.gamePhase(), board.gamePhase());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Mirrored positions score the same for the side to move")
+    public void symmetry() {
+        ChessGame start = new ChessGame();
+        Assertions.assertEquals(0, PositionEvaluator.evaluate(start.getBoard(), ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(PositionEvaluator.MAX_PHASE, start.getBoard().gamePhase());
+
+        ChessBoard white = Fen.parse("4k3/8/8/8/8/8/3P4/2N1K3 w - - 0 1").getBoard();
+        ChessBoard black = Fen.parse("2n1k3/3p4/8/8/8/8/8/4K3 b - - 0 1").getBoard();
+        Assertions.assertTrue(PositionEvaluator.evaluate(white) > 300);
+        Assertions.assertEquals(PositionEvaluator.evaluate(white, ChessGame.TeamColor.WHITE),
+                PositionEvaluator.evaluate(black, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("The endgame tables take over as pieces come off")
+    public void tapering() {
+        // Kings and pawns only: a central king is worth more than one in the corner
+        ChessBoard central = Fen.parse("7k/8/8/8/3K4/8/8/8 w - - 0 1").getBoard();
+        ChessBoard corner = Fen.parse("7k/8/8/8/8/8/8/K7 w - - 0 1").getBoard();
+        Assertions.assertEquals(0, central.gamePhase());
+        Assertions.assertTrue(PositionEvaluator.evaluate(central) > PositionEvaluator.evaluate(corner));
+
+        ChessBoard board = Fen.parse("r3k3/8/8/8/8/8/8/R3K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(4, board.gamePhase());
+        ChessBoard copy = board.snapshot();
+        copy.removePiece(ChessPosition.of(8, 1));
+        Assertions.assertEquals(2, copy.gamePhase());
+        Assertions.assertEquals(4, board.gamePhase());
+    }
+}
@@ -0,0 +1,55 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+public class PositionKeyTests {
+
+    @Test
+    @DisplayName("Transpositions share a key")
+    public void transpositionsMatch() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(move(1, 2, 3, 3));
+        first.makeMove(move(8, 2, 6, 3));
+        first.makeMove(move(1, 7, 3, 6));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(move(1, 7, 3, 6));
+        second.makeMove(move(8, 2, 6, 3));
+        second.makeMove(move(1, 2, 3, 3));
+
+        Assertions.assertEquals(first.positionKey(), second.positionKey());
+        Assertions.assertEquals(first.getBoard(), second.getBoard());
+    }
+
+    @Test
+    @DisplayName("Side to move changes the key")
+    public void sideToMove() {
+        ChessGame game = new ChessGame();
+        long whiteKey = game.positionKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(whiteKey, game.positionKey());
+        Assertions.assertEquals(whiteKey, game.getBoard().zobristKey());
+    }
+
+    @Test
+    @DisplayName("Unmake restores the key")
+    public void unmakeRestores() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(7, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        long key = board.zobristKey();
+
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 2), ChessPiece.PieceType.QUEEN);
+        int undo = board.makeMove(promotion);
+        Assertions.assertNotEquals(key, board.zobristKey());
+        board.unmakeMove(promotion, undo);
+
+        Assertions.assertEquals(key, board.zobristKey());
+        Assertions.assertEquals(key, new ChessBoard(board).zobristKey());
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null);
+    }
+}
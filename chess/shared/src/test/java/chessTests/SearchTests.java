@@ -0,0 +1,85 @@
+package chessTests;
+
+import chess.*;
+import chess.engine.*;
+import org.junit.jupiter.api.*;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds mate in one")
+    public void mateInOne() {
+        // Rook to the eighth row mates the king boxed in by its own pawns
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = newSearch().search(game, Limits.depth(3));
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+        Assertions.assertTrue(Search.isMateScore(result.score()));
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Takes a hanging queen and leaves the game unchanged")
+    public void winsMaterial() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        long key = game.positionKey();
+        SearchResult result = newSearch().search(game, Limits.depth(4));
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null), result.bestMove());
+        Assertions.assertTrue(result.score() > 400);
+        Assertions.assertEquals(4, result.depth());
+        Assertions.assertEquals(key, game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Stops at the node budget")
+    public void nodeBudget() {
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        SearchResult result = newSearch().search(game, Limits.nodes(20_000));
+        Assertions.assertTrue(result.nodes() < 25_000, "visited " + result.nodes());
+        Assertions.assertTrue(game.isLegal(result.bestMove()));
+        Assertions.assertTrue(result.depth() >= 1);
+    }
+
+    @Test
+    @DisplayName("No move when the game is over")
+    public void noMoves() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        game.gameOver = true;
+        Assertions.assertNull(newSearch().search(game, Limits.depth(2)).bestMove());
+    }
+
+    @Test
+    @DisplayName("Parallel search finds the same move every time")
+    public void parallel() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(1), new MaterialEvaluator(), 3)) {
+            Assertions.assertEquals(3, search.threads());
+            for (int run = 0; run < 2; run++) {
+                SearchResult result = search.search(game, Limits.depth(5));
+                Assertions.assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null),
+                        result.bestMove());
+                Assertions.assertEquals(5, result.depth());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel search counts the helpers' nodes with the caller's")
+    public void parallelNodes() {
+        // Deep enough that the helpers get to run even on a single core
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        try (ParallelSearch search = new ParallelSearch(new TranspositionTable(4), new MaterialEvaluator(), 3)) {
+            // The listener only hears from the caller's search
+            long[] callerNodes = {0};
+            search.setListener(progress -> callerNodes[0] = progress.nodes());
+            SearchResult result = search.search(game, Limits.depth(5));
+            Assertions.assertEquals(5, result.depth());
+            Assertions.assertTrue(callerNodes[0] > 0);
+            Assertions.assertTrue(result.nodes() > callerNodes[0],
+                    result.nodes() + " nodes counted, " + callerNodes[0] + " by the caller alone");
+        }
+    }
+
+    private static Search newSearch() {
+        return new Search(new TranspositionTable(1), new MaterialEvaluator());
+    }
+}
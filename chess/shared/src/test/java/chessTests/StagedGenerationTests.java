@@ -0,0 +1,84 @@
+package chessTests;
+
+import chess.*;
+import chess.pieceMoveCalculators.StaticExchange;
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class StagedGenerationTests {
+
+    @Test
+    @DisplayName("Captures and quiet moves split the legal moves")
+    public void stagesCoverAllMoves() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = Fen.parse(reference.fen());
+            LegalMoveGenerator generator = new LegalMoveGenerator(game.getBoard(), game.getTeamTurn());
+            MoveList all = new MoveList();
+            MoveList captures = new MoveList();
+            MoveList quiets = new MoveList();
+            generator.generate(all);
+            generator.generateCaptures(captures);
+            generator.generateQuiets(quiets);
+
+            Set<Integer> staged = new HashSet<>();
+            for (int i = 0; i < captures.size(); i++) {
+                int move = captures.get(i);
+                Assertions.assertTrue(Move.isCapture(move) || Move.promotion(move) >= 0, reference.name());
+                staged.add(move);
+            }
+            for (int i = 0; i < quiets.size(); i++) {
+                int move = quiets.get(i);
+                Assertions.assertFalse(Move.isCapture(move) || Move.promotion(move) >= 0, reference.name());
+                staged.add(move);
+            }
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < all.size(); i++) {
+                expected.add(all.get(i));
+            }
+            Assertions.assertEquals(all.size(), captures.size() + quiets.size(), reference.name());
+            Assertions.assertEquals(expected, staged, reference.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Exchange evaluation")
+    public void staticExchange() {
+        // Rook takes an undefended pawn
+        ChessBoard board = Fen.parse("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100, StaticExchange.evaluate(board, move(1, 5, 5, 5)));
+
+        // Knight takes a pawn but the recaptures win it back and more
+        board = Fen.parse("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1").getBoard();
+        Assertions.assertEquals(-220, StaticExchange.evaluate(board, move(3, 4, 5, 5)));
+
+        // Undefended piece
+        board = Fen.parse("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1").getBoard();
+        Assertions.assertEquals(900, StaticExchange.evaluate(board, move(1, 4, 5, 4)));
+
+        // Queen takes a pawn defended by a pawn, and nothing can take back
+        board = Fen.parse("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1").getBoard();
+        Assertions.assertEquals(-800, StaticExchange.evaluate(board, move(1, 5, 5, 5)));
+
+        // Rook takes a knight defended by a pawn
+        board = Fen.parse("4k3/8/3p4/4n3/8/8/8/4RK2 w - - 0 1").getBoard();
+        Assertions.assertEquals(-180, StaticExchange.evaluate(board, move(1, 5, 5, 5)));
+
+        // Bishop takes a knight, a pawn takes the bishop and a pawn takes back last
+        board = Fen.parse("4k3/8/3p4/4n3/3P4/8/7B/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(90, StaticExchange.evaluate(board, move(2, 8, 5, 5)));
+
+        // Pawn takes a bishop, and the queen taking back still pays for white
+        board = Fen.parse("4k3/8/8/8/8/3p4/4B3/4KQ2 b - - 0 1").getBoard();
+        Assertions.assertEquals(230, StaticExchange.evaluate(board, move(3, 4, 2, 5)));
+
+        // Queen takes a pawn, a bishop takes the queen and the bishop behind it takes back
+        board = Fen.parse("rnbk2r1/pppq3p/1n6/3pp1pP/1P2PpP1/P7/1P1PBP2/RNBKQ1NR b - - 0 1").getBoard();
+        Assertions.assertEquals(-470, StaticExchange.evaluate(board, move(7, 4, 4, 7)));
+    }
+
+    private static int move(int startRow, int startCol, int endRow, int endCol) {
+        return Move.of(new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null));
+    }
+}
@@ -0,0 +1,59 @@
+package chessTests;
+
+import chess.engine.TranspositionTable;
+import org.junit.jupiter.api.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored entries read back")
+    public void roundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(0x1234_5678_9ABC_DEF0L, 0xBEEF, -29990, 12, TranspositionTable.LOWER);
+        long data = table.probe(0x1234_5678_9ABC_DEF0L);
+        Assertions.assertEquals(0xBEEF, TranspositionTable.move(data));
+        Assertions.assertEquals(-29990, TranspositionTable.score(data));
+        Assertions.assertEquals(12, TranspositionTable.depth(data));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        Assertions.assertEquals(0, table.probe(0x1234_5678_9ABC_DEF1L));
+
+        TranspositionTable.Stats stats = table.stats();
+        Assertions.assertEquals(2, stats.probes());
+        Assertions.assertEquals(0.5, stats.hitRate());
+        Assertions.assertEquals(1, stats.megabytes());
+        Assertions.assertEquals(65536, table.capacity());
+    }
+
+    @Test
+    @DisplayName("The size reported is the memory allocated")
+    public void allocatedSize() {
+        TranspositionTable table = new TranspositionTable(3);
+        Assertions.assertEquals(2, table.stats().megabytes());
+        Assertions.assertEquals(2 * (1 << 20) / 16, table.capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(8193));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Old searches' entries are replaced first")
+    public void ageReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Keys sharing a bucket: the same low bits once the halves are folded
+        long bucketStride = 1L << 32 | 1L;
+        for (int i = 0; i < 4; i++) {
+            table.store(i * bucketStride << 20, 1, 0, 20, TranspositionTable.EXACT);
+        }
+        table.newSearch();
+        table.store(5 * bucketStride << 20, 1, 0, 1, TranspositionTable.EXACT);
+        int kept = 0;
+        for (int i = 0; i < 4; i++) {
+            kept += table.probe(i * bucketStride << 20) != 0 ? 1 : 0;
+        }
+        Assertions.assertEquals(3, kept);
+        Assertions.assertNotEquals(0, table.probe(5 * bucketStride << 20));
+
+        // A deeper entry from this search is not overwritten by a shallower bound
+        table.store(5 * bucketStride << 20, 2, 0, 0, TranspositionTable.UPPER);
+        Assertions.assertEquals(1, TranspositionTable.depth(table.probe(5 * bucketStride << 20)));
+    }
+}